@@ -3,11 +3,13 @@ package model;
 import org.json.JSONObject;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 // A flash card with a question and answer
 public class Card extends StudyMaterial {
     //invariant: name of this is the question
     private String answer;
+    private Supplier<String> answerLoader;
 
     //effects: makes card with question and answer
     public Card(String question, String answer) {
@@ -21,15 +23,47 @@ public class Card extends StudyMaterial {
         this.answer = answer;
     }
 
-    //getters and setters
-    public void setAnswer(String answer) {
+    //effects: makes card with question, answer and confidence studied on epochDays, oldest first
+    Card(String question, String answer, Confidence confidence, int[] epochDays) {
+        super(question, confidence, epochDays);
         this.answer = answer;
     }
 
+    //effects: makes card with question and confidence whose answer is only loaded from answerLoader when it is
+    //         first needed
+    public Card(String question, Confidence confidence, Supplier<String> answerLoader) {
+        super(question, confidence);
+        this.answerLoader = answerLoader;
+    }
+
+    //modifies: this
+    //effects: sets answer, shared through the string pool of the semester containing this if it has one, marks this
+    //         as modified and notifies listeners of the edit
+    public void setAnswer(String answer) {
+        this.answer = pooled(answer);
+        this.answerLoader = null;
+        markDirty();
+        fireEvent(listener -> listener.answerEdited(this));
+    }
+
+    //modifies: this
+    //effects: returns answer, loading it first if it has not been loaded yet and sharing it through the string pool
+    //         of the semester containing this if it has one
     public String getAnswer() {
+        if (answerLoader != null) {
+            answer = pooled(answerLoader.get());
+            answerLoader = null;
+        }
         return answer;
     }
 
+    //effects: returns the pooled copy of text if the semester containing this has a string pool, otherwise text
+    private String pooled(String text) {
+        Semester semester = getSemester();
+        StringPool pool = semester == null ? null : semester.getStringPool();
+        return pool == null ? text : pool.intern(text);
+    }
+
     //effects: wrapper for getName
     public String getQuestion() {
         return getName();
@@ -39,7 +73,7 @@ public class Card extends StudyMaterial {
     //effects: returns JSONObject of super (StudyMaterial) and adds answer
     public JSONObject toJson() {
         JSONObject json = super.toJson();
-        json.put("answer", answer);
+        json.put("answer", getAnswer());
         return json;
     }
 
@@ -49,11 +83,12 @@ public class Card extends StudyMaterial {
             return false;
         }
         Card card = (Card) o;
-        return answer.equals(card.answer);
+        return getAnswer().equals(card.getAnswer());
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), answer);
+    //effects: returns a hash of this including its answer, loading it if it has not been loaded yet
+    protected int structuralHash() {
+        return Objects.hash(super.structuralHash(), getAnswer());
     }
 }
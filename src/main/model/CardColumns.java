@@ -0,0 +1,138 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// The cards of a Topic stored column by column instead of as Card objects: parallel arrays of questions and
+// confidence ordinals, and the study dates of every card as epoch days in one shared array, each card owning the
+// range from its date offset to the next card's. Answers are read by row through an answer column, so they can stay
+// on disk until needed. Columns are never modified; a Topic made from columns hands out Cards that view a row and
+// only keeps the columns until its cards are loaded as a whole (see Topic).
+public final class CardColumns {
+    private final String[] questions;
+    private final IntFunction<String> answers;
+    private final byte[] confidences;
+    private final int[] dateOffsets;
+    private final int[] epochDays;
+
+    //requires: questions and confidences have the same length n, dateOffsets has length n + 1 and ascends from 0 to
+    //          the length of epochDays, and answers accepts any row below n
+    //effects: makes columns of n cards where card i has questions[i], answers.apply(i), the Confidence with ordinal
+    //         confidences[i] and study dates epochDays[dateOffsets[i]] to epochDays[dateOffsets[i + 1] - 1], most
+    //         recent first
+    public CardColumns(String[] questions, IntFunction<String> answers, byte[] confidences, int[] dateOffsets,
+                       int[] epochDays) {
+        this.questions = questions;
+        this.answers = answers;
+        this.confidences = confidences;
+        this.dateOffsets = dateOffsets;
+        this.epochDays = epochDays;
+    }
+
+    //effects: returns columns holding cards in their iteration order
+    public static CardColumns of(Collection<Card> cards) {
+        int size = cards.size();
+        String[] questions = new String[size];
+        String[] answers = new String[size];
+        byte[] confidences = new byte[size];
+        int[] dateOffsets = new int[size + 1];
+        int dates = 0;
+        for (Card card : cards) {
+            dates += card.getTimesStudied();
+        }
+        int[] epochDays = new int[dates];
+        int row = 0;
+        for (Card card : cards) {
+            questions[row] = card.getQuestion();
+            answers[row] = card.getAnswer();
+            confidences[row] = (byte) card.getConfidence().ordinal();
+            int offset = dateOffsets[row];
+            for (LocalDate date : card.getStudyDates()) {
+                epochDays[offset++] = (int) date.toEpochDay();
+            }
+            dateOffsets[++row] = offset;
+        }
+        return new CardColumns(questions, i -> answers[i], confidences, dateOffsets, epochDays);
+    }
+
+    //effects: returns number of cards
+    public int size() {
+        return questions.length;
+    }
+
+    //effects: returns question of card at row
+    public String getQuestion(int row) {
+        return questions[row];
+    }
+
+    //effects: returns answer of card at row, reading it from the answer column
+    public String getAnswer(int row) {
+        return answers.apply(row);
+    }
+
+    //effects: returns confidence of card at row
+    public Confidence getConfidence(int row) {
+        return Confidence.values()[confidences[row]];
+    }
+
+    //effects: returns the ordinal of the confidence of card at row
+    public int getConfidenceOrdinal(int row) {
+        return confidences[row];
+    }
+
+    //effects: returns number of study dates of card at row
+    public int getTimesStudied(int row) {
+        return dateOffsets[row + 1] - dateOffsets[row];
+    }
+
+    //requires: card at row has been studied
+    //effects: returns most recent study date of card at row as an epoch day
+    public int getLastStudyEpochDay(int row) {
+        return epochDays[dateOffsets[row]];
+    }
+
+    //effects: returns the study dates of card at row, most recent first, as an unmodifiable view
+    public List<LocalDate> getStudyDates(int row) {
+        return new StudyDates(dateOffsets[row], dateOffsets[row + 1]);
+    }
+
+    //effects: returns a Card for row, whose answer is only read from the answer column when first needed
+    Card toCard(int row) {
+        Card card = new Card(questions[row], getConfidence(row), () -> getAnswer(row));
+        int from = dateOffsets[row];
+        int[] studyDates = new int[dateOffsets[row + 1] - from];
+        for (int i = 0; i < studyDates.length; i++) {
+            studyDates[i] = epochDays[from + studyDates.length - 1 - i];
+        }
+        card.setStudyEpochDays(studyDates);
+        return card;
+    }
+
+    // The study dates of one card, read from the shared epoch day column
+    private class StudyDates extends AbstractList<LocalDate> {
+        private final int from;
+        private final int to;
+
+        // EFFECTS: makes list of the dates in epochDays from index from up to to
+        StudyDates(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public LocalDate get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return LocalDate.ofEpochDay(epochDays[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
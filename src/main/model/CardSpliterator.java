@@ -0,0 +1,117 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// Traverses the cards beneath a StudyCollection without copying them. The topics beneath it are found when the
+// traversal starts, and their card maps are then traversed in place one after another. Splitting hands off half of the
+// topics not yet started, and once a single topic is left splits the spliterator of its card map, so parallel streams
+// divide the work across courses and topics first and then within the last topic.
+final class CardSpliterator implements Spliterator<Card> {
+    static final int CHARACTERISTICS = NONNULL;
+
+    private final StudyCollection<?> root;
+    private Topic[] topics;
+    private int index;
+    private int fence;
+    private Spliterator<Card> current;
+
+    //effects: makes spliterator over the cards beneath root, which finds its topics when first used
+    CardSpliterator(StudyCollection<?> root) {
+        this.root = root;
+    }
+
+    //effects: makes spliterator over the cards of topics from index up to fence
+    private CardSpliterator(Topic[] topics, int index, int fence) {
+        this.root = null;
+        this.topics = topics;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    //modifies: this
+    //effects: finds the topics beneath root the first time it is called
+    private void bind() {
+        if (topics == null) {
+            List<Topic> found = new ArrayList<>();
+            collectTopics(root, found);
+            topics = found.toArray(new Topic[0]);
+            fence = topics.length;
+        }
+    }
+
+    //modifies: found
+    //effects: adds sc to found if it is a Topic, and otherwise the topics beneath it
+    private static void collectTopics(StudyCollection<?> sc, List<Topic> found) {
+        if (sc instanceof Topic) {
+            found.add((Topic) sc);
+            return;
+        }
+        for (StudyMaterial sm : sc.getAll().values()) {
+            collectTopics((StudyCollection<?>) sm, found);
+        }
+    }
+
+    //effects: returns spliterator over the cards of topic
+    private static Spliterator<Card> cardsOf(Topic topic) {
+        return topic.getAll().values().spliterator();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Card> action) {
+        bind();
+        while (current == null || !current.tryAdvance(action)) {
+            if (index >= fence) {
+                current = null;
+                return false;
+            }
+            current = cardsOf(topics[index++]);
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Card> action) {
+        bind();
+        if (current != null) {
+            current.forEachRemaining(action);
+            current = null;
+        }
+        while (index < fence) {
+            cardsOf(topics[index++]).forEachRemaining(action);
+        }
+    }
+
+    @Override
+    public Spliterator<Card> trySplit() {
+        bind();
+        if (fence - index > 1) {
+            int mid = (index + fence) >>> 1;
+            Spliterator<Card> prefix = new CardSpliterator(topics, index, mid);
+            index = mid;
+            return prefix;
+        }
+        if (current == null && index < fence) {
+            current = cardsOf(topics[index++]);
+        }
+        return current == null ? null : current.trySplit();
+    }
+
+    @Override
+    //effects: returns the number of cards in the topics not yet started, plus the estimate of the one in progress
+    public long estimateSize() {
+        bind();
+        long size = current == null ? 0 : current.estimateSize();
+        for (int i = index; i < fence; i++) {
+            size += topics[i].size();
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
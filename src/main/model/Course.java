@@ -2,8 +2,8 @@ package model;
 
 import exceptions.DuplicateElementException;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Supplier;
 
 // A course containing multiple Topics. Extends StudyCollection
 public class Course extends StudyCollection<Topic> {
@@ -18,6 +18,17 @@ public class Course extends StudyCollection<Topic> {
         super(name, confidence);
     }
 
+    //effects: make new Course with name and confidence whose Topics are only loaded from topicLoader when they are
+    //         first needed
+    public Course(String name, Confidence confidence, Supplier<Collection<Topic>> topicLoader) {
+        super(name, confidence, topicLoader);
+    }
+
+    //effects: make new Course with name and confidence studied on epochDays, oldest first, with room for size Topics
+    Course(String name, Confidence confidence, int[] epochDays, int size) {
+        super(name, confidence, epochDays, size);
+    }
+
     @Override
     //modifies: this
     //effects: adds Topic with name in material map
@@ -27,25 +38,4 @@ public class Course extends StudyCollection<Topic> {
         add(topic);
         return topic;
     }
-
-    @Override
-    //effects: returns total number of cards in all topics
-    public int countCards() {
-        int cards = 0;
-        for (Topic t : materialMap.values()) {
-            cards += t.countCards();
-        }
-        return cards;
-    }
-
-    @Override
-    public Collection<Card> getAllCards() {
-        Collection<Card> cards = new ArrayList<>();
-
-        for (Topic t : materialMap.values()) {
-            cards.addAll(t.getAllCards());
-        }
-
-        return cards;
-    }
 }
@@ -0,0 +1,41 @@
+package model;
+
+// Decides when a Card is next due from its Confidence and study dates, in the style of SM-2. A card that has never
+// been reviewed since it was made is due the day it was made. After its first and second reviews it is due
+// firstInterval and secondInterval days later, and after that the gap between its last two reviews is stretched by the
+// ease factor of its current confidence. A confidence whose ease factor is below 1 means the card was forgotten, so it
+// is relearned from firstInterval again.
+public class IntervalModel {
+    public static final IntervalModel SM2 = new IntervalModel(1, 6, new double[]{0, 0, 1.3, 2.5});
+
+    private final int firstInterval;
+    private final int secondInterval;
+    private final double[] easeFactors;
+
+    //requires: firstInterval and secondInterval are positive, easeFactors has an entry for each Confidence ordinal
+    //effects: makes model with the given intervals in days and the ease factor of each confidence, by ordinal
+    public IntervalModel(int firstInterval, int secondInterval, double[] easeFactors) {
+        this.firstInterval = firstInterval;
+        this.secondInterval = secondInterval;
+        this.easeFactors = easeFactors.clone();
+    }
+
+    //effects: returns the epoch day material is next due, Integer.MIN_VALUE if it has never been studied
+    public int dueEpochDay(StudyMaterial material) {
+        int studies = material.getTimesStudied();
+        if (studies == 0) {
+            return Integer.MIN_VALUE;
+        }
+        int last = material.getLastStudyEpochDay();
+        double ease = easeFactors[material.getConfidence().ordinal()];
+        if (studies == 1) {
+            return last;
+        } else if (studies == 2 || ease < 1) {
+            return last + firstInterval;
+        } else if (studies == 3) {
+            return last + secondInterval;
+        }
+        int gap = Math.max(1, last - (int) material.getStudyDates().get(1).toEpochDay());
+        return last + Math.max(1, (int) Math.round(gap * ease));
+    }
+}
@@ -0,0 +1,151 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Plans reviews across a whole Semester: gives every Card in it a due date from an IntervalModel and keeps them all in
+// one queue ordered by due date. The semester is scanned once when the scheduler is made; after that it listens to
+// the semester, rescheduling a card in O(log n) when it is studied and adding or dropping the cards of materials as
+// they are added or removed, so the next due cards are read off the front of the queue.
+public class Scheduler implements StudyListener {
+    private final Semester semester;
+    private final IntervalModel model;
+    private final Map<Card, Entry> entries = new IdentityHashMap<>();
+    private final TreeSet<Entry> queue = new TreeSet<>();
+    private long added;
+
+    //modifies: semester
+    //effects: makes scheduler of the cards in semester, loading any of them not loaded yet, with due dates from model,
+    //         and keeps it up to date with semester until closed
+    public Scheduler(Semester semester, IntervalModel model) {
+        this.semester = semester;
+        this.model = model;
+        semester.streamCards().forEach(this::schedule);
+        semester.addListener(this);
+    }
+
+    //effects: returns up to n cards with the earliest due dates, earliest first
+    public List<Card> nextDue(int n) {
+        List<Card> due = new ArrayList<>(Math.min(n, queue.size()));
+        Iterator<Entry> it = queue.iterator();
+        while (due.size() < n && it.hasNext()) {
+            due.add(it.next().card);
+        }
+        return due;
+    }
+
+    //effects: returns up to n cards due on or before date, earliest first
+    public List<Card> getDue(LocalDate date, int n) {
+        long epochDay = date.toEpochDay();
+        List<Card> due = new ArrayList<>();
+        Iterator<Entry> it = queue.iterator();
+        while (due.size() < n && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.dueDay > epochDay) {
+                break;
+            }
+            due.add(entry.card);
+        }
+        return due;
+    }
+
+    //effects: returns the date card is next due, null if card is not scheduled
+    public LocalDate getDueDate(Card card) {
+        Entry entry = entries.get(card);
+        return entry == null ? null : LocalDate.ofEpochDay(entry.dueDay);
+    }
+
+    //effects: returns number of cards scheduled
+    public int size() {
+        return entries.size();
+    }
+
+    //modifies: this
+    //effects: stops following modifications to the semester
+    public void close() {
+        semester.removeListener(this);
+    }
+
+    //modifies: this
+    //effects: puts card in the queue at its current due date, replacing where it was
+    private void schedule(Card card) {
+        Entry old = entries.get(card);
+        if (old != null) {
+            queue.remove(old);
+        }
+        Entry entry = new Entry(card, model.dueEpochDay(card), added++);
+        entries.put(card, entry);
+        queue.add(entry);
+    }
+
+    //modifies: this
+    //effects: takes card out of the queue if it is in it
+    private void unschedule(Card card) {
+        Entry entry = entries.remove(card);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+    }
+
+    //effects: returns the cards of material, which is itself if it is a Card
+    private static Iterable<Card> cardsOf(StudyMaterial material) {
+        if (material instanceof Card) {
+            return Collections.singletonList((Card) material);
+        }
+        return ((StudyCollection<?>) material).cards();
+    }
+
+    @Override
+    public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+        for (Card card : cardsOf(material)) {
+            schedule(card);
+        }
+    }
+
+    @Override
+    //effects: unschedules the cards of material that are no longer in the semester through another collection
+    public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+        for (Card card : cardsOf(material)) {
+            if (card.getSemester() != semester) {
+                unschedule(card);
+            }
+        }
+    }
+
+    @Override
+    public void nameEdited(StudyMaterial material, String oldName) {
+        // due dates do not depend on names
+    }
+
+    @Override
+    public void answerEdited(Card card) {
+        // due dates do not depend on answers
+    }
+
+    @Override
+    public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+        if (material instanceof Card && entries.containsKey(material)) {
+            schedule((Card) material);
+        }
+    }
+
+    // A card in the queue at its due epoch day, ordered by due day and then by when it was scheduled
+    private static final class Entry implements Comparable<Entry> {
+        final Card card;
+        final int dueDay;
+        final long order;
+
+        //effects: makes entry of card due on dueDay, the order-th to be scheduled
+        Entry(Card card, int dueDay, long order) {
+            this.card = card;
+            this.dueDay = dueDay;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Entry that) {
+            int due = Integer.compare(dueDay, that.dueDay);
+            return due != 0 ? due : Long.compare(order, that.order);
+        }
+    }
+}
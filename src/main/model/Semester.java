@@ -3,17 +3,57 @@ package model;
 import exceptions.DuplicateElementException;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 // A semester containing multiple Courses. Extends StudyCollection
 // invariant: studydate can only have length 1, the creation date
 public class Semester extends StudyCollection<Course> {
+    private final List<StudyListener> listeners = new ArrayList<>();
+    private StringPool stringPool;
 
     //effects: make new semester with name and map of Course
     public Semester(String name) {
         super(name);
     }
 
+    //effects: make new semester with name studied on epochDays, oldest first, with room for size Courses
+    Semester(String name, int[] epochDays, int size) {
+        super(name, Confidence.NONE, epochDays, size);
+    }
+
+    //effects: returns the pool the answers of cards in this are shared through, null if they are not pooled
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    //modifies: this
+    //effects: shares the answers set on or loaded by cards in this from now on through stringPool, or stops sharing
+    //         them if it is null
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    //modifies: this
+    //effects: registers listener to be notified of modifications to this and any material in this
+    public void addListener(StudyListener listener) {
+        listeners.add(listener);
+    }
+
+    //modifies: this
+    //effects: stops notifying listener of modifications
+    public void removeListener(StudyListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    //effects: passes each registered listener to event
+    protected void fireEvent(Consumer<StudyListener> event) {
+        for (StudyListener listener : new ArrayList<>(listeners)) {
+            event.accept(listener);
+        }
+    }
+
     @Override
     //modifies: this
     //effects: adds new Course to materialMap.
@@ -27,27 +67,8 @@ public class Semester extends StudyCollection<Course> {
     //modifies: this
     //effects: modifies the name of this Semester
     public void editName(String newName) {
+        String oldName = getName();
         this.setName(newName);
-    }
-
-    @Override
-    //effects: returns total number of cards in this
-    public int countCards() {
-        int cards = 0;
-        for (Course c : materialMap.values()) {
-            cards += c.countCards();
-        }
-        return cards;
-    }
-
-    @Override
-    public Collection<Card> getAllCards() {
-        Collection<Card> cards = new ArrayList<>();
-
-        for (Course c : materialMap.values()) {
-            cards.addAll(c.getAllCards());
-        }
-
-        return cards;
+        fireEvent(listener -> listener.nameEdited(this, oldName));
     }
 }
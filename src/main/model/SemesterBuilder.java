@@ -0,0 +1,107 @@
+package model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.function.BiConsumer;
+
+// Builds Semester trees in bulk, for readers and importers that make many materials at once. Materials are made with
+// their study dates and a material map sized for their expected number of materials, so nothing is resized or dated
+// twice, and materials without study dates are dated today by one clock read when the builder is made. A material
+// whose name is already taken in its collection is not added; instead its collection and name are passed to the
+// duplicate sink the builder was given, if any, and null is returned, so the caller decides whether to skip or merge it
+// without an exception being thrown. The builder keeps nothing about duplicates itself. A builder given a
+// StringPool shares the questions and answers of the cards it makes through it. A builder may be shared by threads
+// that each build their own subtree.
+public class SemesterBuilder {
+    private final int[] today;
+    private final StringPool pool;
+    private final BiConsumer<StudyCollection<?>, String> duplicates;
+
+    //effects: makes builder dating undated materials by the system clock
+    public SemesterBuilder() {
+        this(Clock.systemDefaultZone());
+    }
+
+    //effects: makes builder dating undated materials by the date of clock now
+    public SemesterBuilder(Clock clock) {
+        this(clock, null);
+    }
+
+    //effects: makes builder dating undated materials by the date of clock now and sharing the text of cards through
+    //         pool, unless it is null
+    public SemesterBuilder(Clock clock, StringPool pool) {
+        this(clock, pool, null);
+    }
+
+    //effects: makes builder as above that passes the collection and name of each material not added because its name
+    //         was taken to duplicates, unless it is null. duplicates must be safe to call from every thread building
+    public SemesterBuilder(Clock clock, StringPool pool, BiConsumer<StudyCollection<?>, String> duplicates) {
+        this.today = new int[]{(int) LocalDate.now(clock).toEpochDay()};
+        this.pool = pool;
+        this.duplicates = duplicates;
+    }
+
+    //effects: returns a Semester with name studied on epochDays, oldest first, or today if epochDays is null, with
+    //         room for size Courses, and the string pool of this
+    public Semester semester(String name, int[] epochDays, int size) {
+        Semester semester = new Semester(name, datesOf(epochDays), size);
+        semester.setStringPool(pool);
+        return semester;
+    }
+
+    //modifies: semester
+    //effects: adds a Course with name and confidence studied on epochDays, oldest first, or today if epochDays is
+    //         null, with room for size Topics to semester and returns it. Returns null and reports a duplicate if
+    //         semester already has a Course with name
+    public Course course(Semester semester, String name, Confidence confidence, int[] epochDays, int size) {
+        return added(semester, new Course(name, confidence, datesOf(epochDays), size));
+    }
+
+    //modifies: course
+    //effects: adds a Topic with name and confidence studied on epochDays, oldest first, or today if epochDays is null,
+    //         with room for size Cards to course and returns it. Returns null and reports a duplicate if course
+    //         already has a Topic with name
+    public Topic topic(Course course, String name, Confidence confidence, int[] epochDays, int size) {
+        return added(course, new Topic(name, confidence, datesOf(epochDays), size));
+    }
+
+    //modifies: topic
+    //effects: adds a Card with question, answer and confidence studied on epochDays, oldest first, or today if
+    //         epochDays is null, to topic and returns it. Returns null and reports a duplicate if topic already has a
+    //         Card with question
+    public Card card(Topic topic, String question, String answer, Confidence confidence, int[] epochDays) {
+        if (pool != null) {
+            question = pool.intern(question);
+            answer = pool.intern(answer);
+        }
+        return added(topic, new Card(question, answer, confidence, datesOf(epochDays)));
+    }
+
+    //requires: parent is a Semester or Course
+    //modifies: parent
+    //effects: adds a Course to a Semester or a Topic to a Course as course or topic do, and returns it or null
+    public StudyCollection<?> collection(StudyCollection<?> parent, String name, Confidence confidence,
+                                         int[] epochDays, int size) {
+        if (parent instanceof Semester) {
+            return course((Semester) parent, name, confidence, epochDays, size);
+        }
+        return topic((Course) parent, name, confidence, epochDays, size);
+    }
+
+    //modifies: parent
+    //effects: adds material to parent and returns it, or reports a duplicate and returns null if its name is taken
+    private <M extends StudyMaterial> M added(StudyCollection<M> parent, M material) {
+        if (parent.putIfAbsent(material) != null) {
+            if (duplicates != null) {
+                duplicates.accept(parent, material.getName());
+            }
+            return null;
+        }
+        return material;
+    }
+
+    //effects: returns epochDays, or a new array holding only today if it is null
+    private int[] datesOf(int[] epochDays) {
+        return epochDays != null ? epochDays : today.clone();
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Canonicalizes repeated text, so that cards with equal questions or answers share one String instead of each holding
+// its own copy. A Semester given a pool (see Semester.setStringPool) passes the answers set on or loaded by its cards
+// through it, and SemesterBuilder and the semester readers pass the cards they make. Nothing is ever taken out of a
+// pool, so it keeps every string it was given, including answers since replaced, until the pool itself is dropped.
+// The pool keeps count of the copies it let go, and estimates the heap they took and the heap the pool itself takes
+// using the layout of a 64-bit JVM with compressed references. Safe to use from several threads.
+public class StringPool {
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 40;
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    //modifies: this
+    //effects: returns the String in the pool equal to text, adding text if there is none. Returns null if text is null
+    public String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        requests.increment();
+        String canonical = strings.putIfAbsent(text, text);
+        if (canonical == null) {
+            return text;
+        }
+        if (canonical != text) {
+            shared.increment();
+            savedBytes.add(sizeOf(text));
+        }
+        return canonical;
+    }
+
+    //effects: returns the number of distinct strings in the pool
+    public int size() {
+        return strings.size();
+    }
+
+    //effects: returns the number of strings passed to intern
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    //effects: returns the number of strings passed to intern that were replaced by an equal one already pooled
+    public long getShared() {
+        return shared.sum();
+    }
+
+    //effects: returns the estimated bytes of heap taken by the copies replaced by pooled strings
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    //effects: returns the estimated bytes of heap the pool's own entries take, not counting the pooled strings
+    public long getOverheadBytes() {
+        return (long) strings.size() * ENTRY_BYTES;
+    }
+
+    //effects: returns the estimated bytes of heap taken by text: the String and its char array
+    public static long sizeOf(String text) {
+        long array = ARRAY_HEADER_BYTES + 2L * text.length();
+        return STRING_BYTES + (array + 7) / 8 * 8;
+    }
+
+    @Override
+    //effects: returns a summary of how much memory the pool saved
+    public String toString() {
+        return String.format("Pooled %d distinct strings; %d of %d were repeats sharing a pooled copy, saving about "
+                        + "%d KB for %d KB of pool entries.", size(), getShared(), getRequests(),
+                getSavedBytes() / 1024, getOverheadBytes() / 1024);
+    }
+}
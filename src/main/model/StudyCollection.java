@@ -7,28 +7,102 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.lang.reflect.ParameterizedType;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-// A Map of StudyMaterial, which itself is a StudyMaterial. Contains methods to add/edit/remove elements from Map
+// A Map of StudyMaterial, which itself is a StudyMaterial. Contains methods to add/edit/remove elements from Map.
+// Keeps how many of its materials, and how many of the cards beneath it, are at each Confidence. Each tally is made
+// the first time it is asked for and then kept up to date as materials are added, removed or studied, updating only
+// the collections between the change and the root, so countCards and confidence counts are constant time.
 public abstract class StudyCollection<M extends StudyMaterial> extends StudyMaterial {
     //invariant: key of value will always be the name of the StudyMaterial
     protected Map<String, M> materialMap;
     public final Class<M> subtype;
+    private Supplier<Collection<M>> materialLoader;
+    //invariant: when not null, confidenceCounts[i] is the number of materials in this with the Confidence of
+    //           ordinal i, and cardCounts[i] the number of cards beneath this with it. cardCounts is only set when
+    //           the cardCounts of every sub-collection are set
+    private int[] confidenceCounts;
+    private int[] cardCounts;
+    //invariant: when not null, priorityIndex holds the materials of this in priority order (see compareTo), and is
+    //           updated whenever one of them is added, removed, studied or renamed
+    private TreeSet<M> priorityIndex;
+    private SortedSet<M> priorityView;
 
-    //effects: makes StudyCollection with name
+    // The type of material held by each kind of StudyCollection, worked out once per class
     // taken from https://stackoverflow.com/questions/3403909/get-generic-type-of-class-at-runtime
+    private static final ClassValue<Class<?>> SUBTYPES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return (Class<?>) ((ParameterizedType) type.getGenericSuperclass()).getActualTypeArguments()[0];
+        }
+    };
+
+    //effects: returns the type of material held by collections of type
+    @SuppressWarnings("unchecked")
+    private static <M extends StudyMaterial> Class<M> subtypeOf(Class<?> type) {
+        return (Class<M>) SUBTYPES.get(type);
+    }
+
+    //effects: makes StudyCollection with name
     public StudyCollection(String name) {
         super(name);
         this.materialMap = new HashMap<>();
-        subtype = (Class<M>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        subtype = subtypeOf(getClass());
     }
 
     //effects: makes StudyCollection with name and confidence
-    // taken from https://stackoverflow.com/questions/3403909/get-generic-type-of-class-at-runtime
     public StudyCollection(String name, Confidence confidence) {
         super(name, confidence);
         this.materialMap = new HashMap<>();
-        subtype = (Class<M>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        subtype = subtypeOf(getClass());
+    }
+
+    //effects: makes StudyCollection with name and confidence studied on epochDays, oldest first, whose material map
+    //         holds size materials without resizing
+    StudyCollection(String name, Confidence confidence, int[] epochDays, int size) {
+        super(name, confidence, epochDays);
+        this.materialMap = new HashMap<>(capacityFor(size));
+        subtype = subtypeOf(getClass());
+    }
+
+    //effects: makes StudyCollection with name and confidence whose materials are only loaded from materialLoader
+    //         when they are first needed
+    protected StudyCollection(String name, Confidence confidence, Supplier<Collection<M>> materialLoader) {
+        this(name, confidence);
+        this.materialLoader = materialLoader;
+    }
+
+    //modifies: this
+    //effects: makes the materials of this load from materialLoader when they are first needed, for subclasses whose
+    //         loader depends on the collection itself
+    protected void setMaterialLoader(Supplier<Collection<M>> materialLoader) {
+        this.materialLoader = materialLoader;
+    }
+
+    //effects: returns true if the materials of this are in memory
+    public boolean isLoaded() {
+        return materialLoader == null;
+    }
+
+    //modifies: this
+    //effects: puts the materials from materialLoader into materialMap the first time it is called, without notifying
+    //         listeners since they are not modifications. Returns materialMap
+    private Map<String, M> materials() {
+        if (materialLoader != null) {
+            Supplier<Collection<M>> loader = materialLoader;
+            materialLoader = null;
+            for (M m : loader.get()) {
+                m.markClean();
+                materialMap.put(m.getName(), m);
+                m.setParent(this);
+            }
+        }
+        return materialMap;
     }
 
     //modifies: this
@@ -46,10 +120,29 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
     //modifies: this
     //effects: adds material to materialMap with name as key
     protected void add(M material) throws DuplicateElementException {
-        if (materialMap.containsKey(material.getName())) {
+        if (putIfAbsent(material) != null) {
             throw new DuplicateElementException(this, material.getName());
         }
-        materialMap.put(material.getName(), material);
+    }
+
+    //modifies: this
+    //effects: adds material to materialMap with name as key and returns null, unless a material with its name is
+    //         already in materialMap, which is returned instead and left there
+    M putIfAbsent(M material) {
+        M existing = materials().putIfAbsent(material.getName(), material);
+        if (existing != null) {
+            return existing;
+        }
+        StudyCollection<?> previous = material.getParent();
+        if (previous != null && previous != this) {
+            material.addSharedParent(previous);
+        }
+        material.setParent(this);
+        updateCounts(material, 1);
+        reindex(material);
+        markDirty();
+        fireEvent(listener -> listener.materialAdded(this, material));
+        return null;
     }
 
     //modifies: this
@@ -69,17 +162,18 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
     // Throws DuplicateElementException if newName already exists
     // Throws NoElementException if name to be modifies does not exist
     public M editName(String name, String newName) throws ModifyException {
-        if (materialMap.containsKey(newName)) {
+        if (materials().containsKey(newName)) {
             throw new DuplicateElementException(this, newName);
         }
 
-        if (!materialMap.containsKey(name)) {
+        if (!materials().containsKey(name)) {
             throw new NoElementException(this, name);
         }
 
-        M editedMaterial = materialMap.remove(name);
+        M editedMaterial = materials().remove(name);
         editedMaterial.setName(newName);
-        materialMap.put(newName, editedMaterial);
+        materials().put(newName, editedMaterial);
+        fireEvent(listener -> listener.nameEdited(editedMaterial, name));
         return editedMaterial;
     }
 
@@ -87,10 +181,16 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
     //effects: removes material with name from materialMap. returns null if material not in materialMap
     // Throws NoElementException if material to be removed is not in this
     public M remove(String name) throws NoElementException {
-        if (!materialMap.containsKey(name)) {
+        if (!materials().containsKey(name)) {
             throw new NoElementException(this, name);
         }
-        return materialMap.remove(name);
+        M removed = materials().remove(name);
+        unindex(removed);
+        removed.removeParent(this);
+        updateCounts(removed, -1);
+        markDirty();
+        fireEvent(listener -> listener.materialRemoved(this, removed));
+        return removed;
     }
 
     //modifies: this
@@ -102,28 +202,31 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
 
     //effects: gets material in materialMap with name as key. Returns null if name not in materialMap.
     public M get(String name) {
-        return materialMap.get(name);
+        return materials().get(name);
     }
 
     //effects: returns materialMap
     public Map<String, M> getAll() {
-        return materialMap;
+        return materials();
     }
 
     //effects: return true if name is a key of materialMap
     public boolean contains(String name) {
-        return materialMap.containsKey((name));
+        return materials().containsKey((name));
     }
 
     //effects: return true if material is in materialMap
     public boolean contains(M material) {
-        return materialMap.containsValue((material));
+        return materials().containsValue((material));
     }
 
     //effects: returns all materials in materialMap with certain confidence
     public Map<String, M> getAtConfidence(Confidence confidence) {
-        Map<String, M> selectedMaterials = new HashMap<>();
-        for (M m : materialMap.values()) {
+        int count = countAtConfidence(confidence);
+        Map<String, M> selectedMaterials = new HashMap<>(capacityFor(count));
+        Iterator<M> materials = materials().values().iterator();
+        while (selectedMaterials.size() < count && materials.hasNext()) {
+            M m = materials.next();
             if (m.getConfidence().compareTo(confidence) == 0) {
                 selectedMaterials.put(m.getName(), m);
             }
@@ -133,8 +236,11 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
 
     //effect: returns all materials at or below confidence in materialMap
     public Map<String, M> getBelowConfidence(Confidence confidence) {
-        Map<String, M> selectedMaterials = new HashMap<>();
-        for (M m : materialMap.values()) {
+        int count = countBelowConfidence(confidence);
+        Map<String, M> selectedMaterials = new HashMap<>(capacityFor(count));
+        Iterator<M> materials = materials().values().iterator();
+        while (selectedMaterials.size() < count && materials.hasNext()) {
+            M m = materials.next();
             if (m.getConfidence().compareTo(confidence) <= 0) {
                 selectedMaterials.put(m.getName(), m);
             }
@@ -142,23 +248,217 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
         return selectedMaterials;
     }
 
-    //effect: returns a List of materials sorted by studying priority
+    //effects: returns number of materials in materialMap with certain confidence
+    public int countAtConfidence(Confidence confidence) {
+        return confidenceCounts()[confidence.ordinal()];
+    }
+
+    //effects: returns number of materials in materialMap at or below confidence
+    public int countBelowConfidence(Confidence confidence) {
+        int[] counts = confidenceCounts();
+        int count = 0;
+        for (int i = 0; i <= confidence.ordinal(); i++) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    //effects: returns number of cards in all sub-materials in materialMap with certain confidence
+    public int countCardsAtConfidence(Confidence confidence) {
+        return cardCounts()[confidence.ordinal()];
+    }
+
+    //modifies: this
+    //effects: returns the number of materials in this at each confidence, indexed by ordinal, tallying them the first
+    //         time
+    private int[] confidenceCounts() {
+        if (confidenceCounts == null) {
+            confidenceCounts = tallyConfidences();
+        }
+        return confidenceCounts;
+    }
+
+    //effects: counts the materials in this at each confidence, indexed by ordinal
+    protected int[] tallyConfidences() {
+        int[] counts = new int[Confidence.values().length];
+        for (M m : materials().values()) {
+            counts[m.getConfidence().ordinal()]++;
+        }
+        return counts;
+    }
+
+    //modifies: this
+    //effects: returns the number of cards beneath this at each confidence, indexed by ordinal, tallying them and the
+    //         card counts of all sub-collections the first time
+    private int[] cardCounts() {
+        if (cardCounts == null) {
+            int[] counts;
+            if (subtype == Card.class) {
+                counts = confidenceCounts().clone();
+            } else {
+                counts = new int[Confidence.values().length];
+                for (M m : materials().values()) {
+                    addCounts(counts, ((StudyCollection<?>) m).cardCounts(), 1);
+                }
+            }
+            cardCounts = counts;
+        }
+        return cardCounts;
+    }
+
+    //modifies: this
+    //effects: adds sign times material, which has just been added to or removed from this, to the tallies of this and
+    //         the collections above it that have been made
+    private void updateCounts(M material, int sign) {
+        if (confidenceCounts != null) {
+            confidenceCounts[material.getConfidence().ordinal()] += sign;
+        }
+        if (cardCounts != null) {
+            int[] cards;
+            if (material instanceof StudyCollection) {
+                cards = ((StudyCollection<?>) material).cardCounts();
+            } else {
+                cards = new int[Confidence.values().length];
+                cards[material.getConfidence().ordinal()] = 1;
+            }
+            addToCardCounts(cards, sign);
+        }
+    }
+
+    //modifies: this
+    //effects: moves material in this from previous confidence to its current one in the tallies of this and the
+    //         collections above it that have been made
+    void confidenceChanged(StudyMaterial material, Confidence previous) {
+        int from = previous.ordinal();
+        int to = material.getConfidence().ordinal();
+        if (confidenceCounts != null) {
+            confidenceCounts[from]--;
+            confidenceCounts[to]++;
+        }
+        if (material instanceof Card) {
+            int[] moved = new int[Confidence.values().length];
+            moved[from]--;
+            moved[to]++;
+            addToCardCounts(moved, 1);
+        }
+    }
+
+    //modifies: this
+    //effects: adds sign times cards to the card tally of this and of every collection containing it that has one.
+    //         A collection reached through several of its materials counts cards once for each, as a recount would
+    private void addToCardCounts(int[] cards, int sign) {
+        if (cardCounts == null) {
+            return;
+        }
+        addCounts(cardCounts, cards, sign);
+        if (getParent() != null) {
+            getParent().addToCardCounts(cards, sign);
+        }
+        for (StudyCollection<?> sc : getSharedParents()) {
+            sc.addToCardCounts(cards, sign);
+        }
+    }
+
+    //modifies: counts
+    //effects: adds sign times each of added to counts
+    private static void addCounts(int[] counts, int[] added, int sign) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += sign * added[i];
+        }
+    }
+
+    //effects: returns an initial HashMap capacity that holds size entries without resizing
+    protected static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    //effects: returns all materials in materialMap that were last studied before date or never studied
+    public Map<String, M> getLastStudiedBefore(LocalDate date) {
+        Map<String, M> selectedMaterials = new HashMap<>();
+        for (M m : materials().values()) {
+            if (m.getTimesStudied() == 0 || m.getLastStudyDate().isBefore(date)) {
+                selectedMaterials.put(m.getName(), m);
+            }
+        }
+        return selectedMaterials;
+    }
+
+    //effect: returns a List of materials sorted by studying priority, copied from the priority index
     public List<M> getSortedByPriority() {
-        List<M> sortedCards = new ArrayList<>(materialMap.values());
-        Collections.sort(sortedCards);
-        return sortedCards;
+        return new ArrayList<>(getByPriority());
+    }
+
+    //modifies: this
+    //effects: returns the materials in materialMap in studying priority order as an unmodifiable live view of the
+    //         priority index, building the index the first time
+    public SortedSet<M> getByPriority() {
+        if (priorityIndex == null) {
+            priorityIndex = new TreeSet<>(materials().values());
+            priorityView = Collections.unmodifiableSortedSet(priorityIndex);
+        }
+        return priorityView;
+    }
+
+    //modifies: this
+    //effects: removes material from the priority index, if there is one, before its priority changes
+    void unindex(StudyMaterial material) {
+        if (priorityIndex != null) {
+            priorityIndex.remove(material);
+        }
+    }
+
+    //modifies: this
+    //effects: puts material, which is in materialMap, into the priority index, if there is one, at its current
+    //         priority
+    void reindex(StudyMaterial material) {
+        if (priorityIndex != null) {
+            priorityIndex.add(subtype.cast(material));
+        }
+    }
+
+    @Override
+    //modifies: this
+    //effects: marks this and every modified material in it as unmodified
+    public void markClean() {
+        if (isDirty()) {
+            for (M m : materialMap.values()) {
+                if (m.isDirty()) {
+                    m.markClean();
+                }
+            }
+        }
+        super.markClean();
     }
 
     //effects: returns number of materials in materialMap
     public int size() {
-        return materialMap.size();
+        return materials().size();
     }
 
-    //effects: returns number of cards in all sub-materials in materialMap
-    public abstract int countCards();
+    //effects: returns number of cards in all sub-materials in materialMap, from the card tally of this
+    public int countCards() {
+        int cards = 0;
+        for (int count : cardCounts()) {
+            cards += count;
+        }
+        return cards;
+    }
 
     //effects: returns all the cards under in all sub-materials in materialMap
-    public abstract Collection<Card> getAllCards();
+    public Collection<Card> getAllCards() {
+        return streamCards().collect(Collectors.toList());
+    }
+
+    //effects: returns a lazy stream of the cards in all sub-materials in materialMap, which reads them from the
+    //         collections as it is traversed and splits across them when parallel
+    public Stream<Card> streamCards() {
+        return StreamSupport.stream(() -> new CardSpliterator(this), CardSpliterator.CHARACTERISTICS, false);
+    }
+
+    //effects: returns the cards in all sub-materials in materialMap as a lazy view that can be iterated over
+    public Iterable<Card> cards() {
+        return () -> Spliterators.iterator(new CardSpliterator(this));
+    }
 
     @Override
     //effects: gets jsonObject of super (StudyMaterial) and adds study materials in material map to jsonObject
@@ -167,7 +467,7 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
         JSONObject json = super.toJson();
         JSONArray jsonMaterialMap = new JSONArray();
 
-        for (M sm : materialMap.values()) {
+        for (M sm : materials().values()) {
             jsonMaterialMap.put(sm.toJson());
         }
 
@@ -182,11 +482,22 @@ public abstract class StudyCollection<M extends StudyMaterial> extends StudyMate
             return false;
         }
         StudyCollection<?> that = (StudyCollection<?>) o;
-        return materialMap.equals(that.materialMap);
+        return materials().equals(that.materials());
+    }
+
+    @Override
+    //effects: returns a hash of this including the cached hashes of its materials
+    protected int structuralHash() {
+        return Objects.hash(super.structuralHash(), materials(), subtype);
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), materialMap, subtype);
+    //effects: returns the later of the last study day of this and the cached latest study days of its materials
+    protected int latestStudy() {
+        int latest = super.latestStudy();
+        for (M m : materials().values()) {
+            latest = Math.max(latest, m.getLatestStudyEpochDay());
+        }
+        return latest;
     }
 }
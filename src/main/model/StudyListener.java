@@ -0,0 +1,21 @@
+package model;
+
+import java.time.LocalDate;
+
+// Listens for modifications to the StudyMaterials in a Semester. Registered with Semester.addListener
+public interface StudyListener {
+    //effects: called after material is added to parent
+    void materialAdded(StudyCollection<?> parent, StudyMaterial material);
+
+    //effects: called after material is removed from parent
+    void materialRemoved(StudyCollection<?> parent, StudyMaterial material);
+
+    //effects: called after the name of material is changed from oldName
+    void nameEdited(StudyMaterial material, String oldName);
+
+    //effects: called after the answer of card is changed
+    void answerEdited(Card card);
+
+    //effects: called after material is studied on date with confidence
+    void studied(StudyMaterial material, LocalDate date, Confidence confidence);
+}
@@ -1,61 +1,113 @@
 package model;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.JsonFormat;
 import persistence.Writable;
 
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
 // Represents some material with a name that you need to study. Records how many times you studied it and when.
+// Study dates are kept as epoch days in an array that grows at its tail, oldest first, so recording a study appends
+// in amortized constant time; getStudyDates views them most recent first.
 public abstract class StudyMaterial implements Comparable<StudyMaterial>, Writable {
-    private List<LocalDate> studyDates;
+    private int[] epochDays;
+    private int timesStudied;
     private Confidence confidence;
     private String name;
+    private StudyCollection<?> parent;
+    private List<StudyCollection<?>> sharedParents;
+    private boolean dirty = true;
+    private int hash;
+    private boolean hashCached;
+    private int latestStudy;
+    private boolean latestStudyCached;
 
     //effects: creates new material with name and adds today as the first study date with NONE confidence
     public StudyMaterial(String name) {
-        this.studyDates = new ArrayList<>();
-        this.studyDates.add(LocalDate.now());
+        this.epochDays = new int[]{(int) LocalDate.now().toEpochDay()};
+        this.timesStudied = 1;
         this.confidence = Confidence.NONE;
         this.name = name;
     }
 
     //effects: creates new material with name and adds today as the first study date with specified confidence
     public StudyMaterial(String name, Confidence confidence) {
-        this.studyDates = new ArrayList<>();
-        this.studyDates.add(LocalDate.now());
+        this.epochDays = new int[]{(int) LocalDate.now().toEpochDay()};
+        this.timesStudied = 1;
+        this.confidence = confidence;
+        this.name = name;
+    }
+
+    //effects: creates new material with name and confidence studied on epochDays, oldest first, keeping the array
+    StudyMaterial(String name, Confidence confidence, int[] epochDays) {
+        this.epochDays = epochDays;
+        this.timesStudied = epochDays.length;
         this.confidence = confidence;
         this.name = name;
     }
 
     //modifies: this
-    //effects: sets studyDates to dates. For use in reading and writing.
+    //effects: sets studyDates to dates, most recent first. For use in reading and writing.
     public void setStudyDates(List<LocalDate> dates) {
-        this.studyDates = dates;
+        int[] days = new int[dates.size()];
+        int i = days.length;
+        for (LocalDate date : dates) {
+            days[--i] = (int) date.toEpochDay();
+        }
+        setStudyEpochDays(days);
+    }
+
+    //modifies: this
+    //effects: sets studyDates to epochDays, oldest first, keeping the array itself. For use in reading.
+    public void setStudyEpochDays(int[] epochDays) {
+        unindex();
+        this.epochDays = epochDays;
+        this.timesStudied = epochDays.length;
+        reindex();
+        markDirty();
     }
 
     //modifies: this
     //effects: adds today as last date studied to end of studyDates and updates confidence
     public void trackStudy(Confidence confidence) {
-        this.studyDates.add(0, LocalDate.now());
-        this.confidence = confidence;
+        trackStudy(LocalDate.now(), confidence);
     }
 
     //modifies: this
     //effects: adds date studied to end of studyDates and updates confidence
     public void trackStudy(LocalDate date, Confidence confidence) {
-        this.studyDates.add(0, date);
+        unindex();
+        if (timesStudied == epochDays.length) {
+            epochDays = Arrays.copyOf(epochDays, Math.max(4, timesStudied + (timesStudied >> 1)));
+        }
+        epochDays[timesStudied++] = (int) date.toEpochDay();
+        Confidence previous = this.confidence;
         this.confidence = confidence;
+        if (previous != confidence) {
+            if (parent != null) {
+                parent.confidenceChanged(this, previous);
+            }
+            for (StudyCollection<?> sc : getSharedParents()) {
+                sc.confidenceChanged(this, previous);
+            }
+        }
+        reindex();
+        markDirty();
+        fireEvent(listener -> listener.studied(this, date, confidence));
     }
 
     //effects: returns number of times this has been studied (excluding creation date)
     public int getTimesStudied() {
-        return studyDates.size();
+        return timesStudied;
     }
 
     //effects: returns days since the last time studied to the current date
@@ -63,14 +115,22 @@ public abstract class StudyMaterial implements Comparable<StudyMaterial>, Writab
         return ((int) DAYS.between(getLastStudyDate(), LocalDate.now()));
     }
 
-    //effects: returns studyDates
+    //effects: returns studyDates, most recent first, as an unmodifiable view
     public List<LocalDate> getStudyDates() {
-        return studyDates;
+        return new StudyDates();
     }
 
     //effects: returns last date this was studied
     public LocalDate getLastStudyDate() {
-        return studyDates.get(0);
+        return LocalDate.ofEpochDay(getLastStudyEpochDay());
+    }
+
+    //effects: returns last date this was studied as an epoch day
+    public int getLastStudyEpochDay() {
+        if (timesStudied == 0) {
+            throw new IndexOutOfBoundsException("Index: 0, Size: 0");
+        }
+        return epochDays[timesStudied - 1];
     }
 
     //getters and setters
@@ -83,18 +143,140 @@ public abstract class StudyMaterial implements Comparable<StudyMaterial>, Writab
     }
 
     protected void setName(String name) {
+        unindex();
         this.name = name;
+        reindex();
+        markDirty();
+    }
+
+    //effects: returns true if this or any material in it has been modified since this was last marked clean.
+    //         New materials start out modified
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    //modifies: this
+    //effects: marks this and its ancestors as modified. Stops at the first ancestor that is already marked, since the
+    //         ancestors of a modified material are always marked too
+    public void markDirty() {
+        invalidateCaches();
+        for (StudyMaterial sm = this; sm != null && !sm.dirty; sm = sm.parent) {
+            sm.dirty = true;
+        }
+    }
+
+    //modifies: this
+    //effects: forgets the cached hash and latest study day of this and of every collection containing it. Stops at
+    //         collections with neither cached, since a collection only caches either once its materials have it cached
+    void invalidateCaches() {
+        if (!hashCached && !latestStudyCached) {
+            return;
+        }
+        hashCached = false;
+        latestStudyCached = false;
+        if (parent != null) {
+            parent.invalidateCaches();
+        }
+        for (StudyCollection<?> sc : getSharedParents()) {
+            sc.invalidateCaches();
+        }
+    }
+
+    //modifies: this
+    //effects: marks this as unmodified, for use once it has been read or saved
+    public void markClean() {
+        dirty = false;
+    }
+
+    //effects: returns the StudyCollection containing this, null if this is not in a StudyCollection
+    public StudyCollection<?> getParent() {
+        return parent;
+    }
+
+    //modifies: this
+    //effects: sets the StudyCollection containing this
+    void setParent(StudyCollection<?> parent) {
+        this.parent = parent;
+    }
+
+    //modifies: this
+    //effects: takes this out of the priority index of every collection containing it, before its priority changes
+    private void unindex() {
+        if (parent != null) {
+            parent.unindex(this);
+        }
+        for (StudyCollection<?> sc : getSharedParents()) {
+            sc.unindex(this);
+        }
+    }
+
+    //modifies: this
+    //effects: puts this back into the priority index of every collection containing it, after its priority changed
+    private void reindex() {
+        if (parent != null) {
+            parent.reindex(this);
+        }
+        for (StudyCollection<?> sc : getSharedParents()) {
+            sc.reindex(this);
+        }
+    }
+
+    //effects: returns the StudyCollections other than its parent that also contain this
+    List<StudyCollection<?>> getSharedParents() {
+        return sharedParents == null ? Collections.emptyList() : sharedParents;
+    }
+
+    //modifies: this
+    //effects: records that collection also contains this, besides its parent
+    void addSharedParent(StudyCollection<?> collection) {
+        if (sharedParents == null) {
+            sharedParents = new ArrayList<>(1);
+        }
+        sharedParents.add(collection);
+    }
+
+    //modifies: this
+    //effects: records that collection no longer contains this. If collection was its parent, one of the other
+    //         collections containing this becomes its parent, or it has none
+    void removeParent(StudyCollection<?> collection) {
+        if (parent == collection) {
+            parent = sharedParents == null || sharedParents.isEmpty() ? null : sharedParents.remove(0);
+        } else if (sharedParents != null) {
+            sharedParents.remove(collection);
+        }
+    }
+
+    //effects: returns the Semester at the top of the hierarchy containing this, null if there is none
+    public Semester getSemester() {
+        StudyMaterial root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root instanceof Semester ? (Semester) root : null;
+    }
+
+    //effects: passes each listener of the Semester containing this to event
+    protected void fireEvent(Consumer<StudyListener> event) {
+        Semester semester = getSemester();
+        if (semester != null) {
+            semester.fireEvent(event);
+        }
     }
 
     @Override
     //effects: returns how much more confident you are at this compared to mat using Confidence, then time since last
-    //         studied. Positive int means you know this better than mat.
+    //         studied, never studied being least known, then name. Positive int means you know this better than mat.
     public int compareTo(StudyMaterial mat) {
         if (confidence.compareTo(mat.confidence) != 0) {
             return confidence.compareTo(mat.confidence);
-        } else {
-            return getLastStudyDate().compareTo(mat.getLastStudyDate());
         }
+        int lastStudied = Integer.compare(lastStudyKey(), mat.lastStudyKey());
+        return lastStudied != 0 ? lastStudied : name.compareTo(mat.name);
+    }
+
+    //effects: returns the last epoch day this was studied, or Integer.MIN_VALUE if it never was
+    private int lastStudyKey() {
+        return timesStudied == 0 ? Integer.MIN_VALUE : epochDays[timesStudied - 1];
     }
 
     @Override
@@ -108,28 +290,14 @@ public abstract class StudyMaterial implements Comparable<StudyMaterial>, Writab
         JSONObject json = new JSONObject();
         json.put("name", name);
         json.put("confidence", confidence.toString());
-        json.put("studyDates", studyDatesToJson());
+        json.put("studyDates", JsonFormat.studyDatesToJson(getStudyDates()));
 
         return json;
     }
 
-    //effects: returns jsonArray with studyDates in JsonArray
-    private JSONArray studyDatesToJson() {
-        JSONArray jsonArray = new JSONArray();
-
-        for (LocalDate date : studyDates) {
-            JSONObject jsonDate = new JSONObject();
-            jsonDate.put("year", date.getYear());
-            jsonDate.put("month", date.getMonthValue());
-            jsonDate.put("day", date.getDayOfMonth());
-
-            jsonArray.put(jsonDate);
-        }
-
-        return jsonArray;
-    }
-
     @Override
+    //effects: returns true if o is the same kind of material with the same study dates, confidence and name. Materials
+    //         whose cached hashes differ are told apart without comparing them
     public boolean equals(Object o) {
         if (this == o) {
             return true;
@@ -138,13 +306,75 @@ public abstract class StudyMaterial implements Comparable<StudyMaterial>, Writab
             return false;
         }
         StudyMaterial that = (StudyMaterial) o;
-        return studyDates.equals(that.studyDates)
+        return hashCode() == that.hashCode()
+                && sameStudyDates(that)
                 && confidence == that.confidence
                 && name.equals(that.name);
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(studyDates, confidence, name);
+    //modifies: this
+    //effects: returns the structural hash of this, computing it the first time and again only after this or a
+    //         material in it is modified
+    public final int hashCode() {
+        if (!hashCached) {
+            hash = structuralHash();
+            hashCached = true;
+        }
+        return hash;
+    }
+
+    //modifies: this
+    //effects: returns the epoch day this or any material in it was last studied, Integer.MIN_VALUE if none of them
+    //         has been studied, computing it the first time and again only after this or a material in it is modified
+    public final int getLatestStudyEpochDay() {
+        if (!latestStudyCached) {
+            latestStudy = latestStudy();
+            latestStudyCached = true;
+        }
+        return latestStudy;
+    }
+
+    //effects: returns the epoch day this or any material in it was last studied, Integer.MIN_VALUE if none was
+    protected int latestStudy() {
+        return timesStudied == 0 ? Integer.MIN_VALUE : getLastStudyEpochDay();
+    }
+
+    //effects: returns a hash of the study dates, confidence and name of this, consistent with equals
+    protected int structuralHash() {
+        int dates = 1;
+        for (int i = 0; i < timesStudied; i++) {
+            dates = 31 * dates + epochDays[i];
+        }
+        return Objects.hash(dates, confidence, name);
+    }
+
+    //effects: returns true if this and that were studied on the same dates
+    private boolean sameStudyDates(StudyMaterial that) {
+        if (timesStudied != that.timesStudied) {
+            return false;
+        }
+        for (int i = 0; i < timesStudied; i++) {
+            if (epochDays[i] != that.epochDays[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The study dates of this, most recent first, read from epochDays
+    private class StudyDates extends AbstractList<LocalDate> {
+        @Override
+        public LocalDate get(int index) {
+            if (index < 0 || index >= timesStudied) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + timesStudied);
+            }
+            return LocalDate.ofEpochDay(epochDays[timesStudied - 1 - index]);
+        }
+
+        @Override
+        public int size() {
+            return timesStudied;
+        }
     }
 }
@@ -2,10 +2,16 @@ package model;
 
 import exceptions.DuplicateElementException;
 
-import java.util.Collection;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
 
-// a topic containing many cards in a map that you can study
+// a topic containing many cards in a map that you can study. A topic made from CardColumns keeps its cards in them
+// until the card map is first needed: size, confidence and study date queries scan the columns (confidence counts are
+// tallied from them once), and the Cards they return are views of a row that are reused once the map is built.
 public class Topic extends StudyCollection<Card> {
+    private CardColumns columns;
+    private Card[] rows;
 
     //effects: sets the topic name and creates empty Card map
     public Topic(String name) {
@@ -17,11 +23,84 @@ public class Topic extends StudyCollection<Card> {
         super(name, confidence);
     }
 
+    //effects: makes Topic with name and confidence studied on epochDays, oldest first, with room for size Cards
+    Topic(String name, Confidence confidence, int[] epochDays, int size) {
+        super(name, confidence, epochDays, size);
+    }
+
+    //effects: makes Topic with name and confidence whose cards are only loaded from cardLoader when they are first
+    //         needed
+    public Topic(String name, Confidence confidence, Supplier<Collection<Card>> cardLoader) {
+        super(name, confidence, cardLoader);
+    }
+
+    //effects: makes Topic with name and confidence whose cards are stored in columns until the card map is first
+    //         needed
+    public Topic(String name, Confidence confidence, CardColumns columns) {
+        super(name, confidence);
+        this.columns = columns;
+        this.rows = new Card[columns.size()];
+        setMaterialLoader(this::loadRows);
+    }
+
+    //modifies: this
+    //effects: returns a Card for every row of columns and stops using the columns
+    private Collection<Card> loadRows() {
+        List<Card> cards = new ArrayList<>(rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            cards.add(row(i));
+        }
+        columns = null;
+        rows = null;
+        return cards;
+    }
+
+    //modifies: this
+    //effects: returns the Card viewing row of columns, making it the first time
+    private Card row(int row) {
+        if (rows[row] == null) {
+            Card card = columns.toCard(row);
+            card.setParent(this);
+            card.markClean();
+            rows[row] = card;
+        }
+        return rows[row];
+    }
+
+    @Override
+    //modifies: this
+    //effects: marks this and every modified material in it, including the Cards viewing rows of columns, as unmodified
+    public void markClean() {
+        if (rows != null && isDirty()) {
+            for (Card card : rows) {
+                if (card != null && card.isDirty()) {
+                    card.markClean();
+                }
+            }
+        }
+        super.markClean();
+    }
+
+    //effects: returns the confidence ordinal of row of columns, as modified through its Card if it has one
+    private int confidenceAt(int row) {
+        return rows[row] == null ? columns.getConfidenceOrdinal(row) : rows[row].getConfidence().ordinal();
+    }
+
+    //effects: returns true if row of columns was last studied before epochDay or never studied, as modified
+    //         through its Card if it has one
+    private boolean studiedBefore(int row, long epochDay) {
+        Card card = rows[row];
+        if (card != null) {
+            return card.getTimesStudied() == 0 || card.getLastStudyDate().toEpochDay() < epochDay;
+        }
+        return columns.getTimesStudied(row) == 0 || columns.getLastStudyEpochDay(row) < epochDay;
+    }
+
     //requires: cardQuestion must be in materialMap
     //modifies: this
     //effects: changes a card's answer with cardQuestion to newAnswer in materialMap
     public Card editCardAnswer(String cardQuestion, String newAnswer) {
-        Card editCard = materialMap.get(cardQuestion);
+        Card editCard = get(cardQuestion);
         editCard.setAnswer(newAnswer);
         return editCard;
     }
@@ -49,6 +128,106 @@ public class Topic extends StudyCollection<Card> {
         return size();
     }
 
+    @Override
+    //effects: returns number of cards in this, counting columns without loading them
+    public int size() {
+        return columns != null ? columns.size() : super.size();
+    }
+
+    @Override
+    //effects: counts the cards in this at each confidence, indexed by ordinal, scanning columns without loading them
+    protected int[] tallyConfidences() {
+        if (columns == null) {
+            return super.tallyConfidences();
+        }
+        int[] counts = new int[Confidence.values().length];
+        for (int i = 0; i < rows.length; i++) {
+            counts[confidenceAt(i)]++;
+        }
+        return counts;
+    }
+
+    @Override
+    //effects: returns all cards in this with certain confidence, scanning columns without loading them
+    public Map<String, Card> getAtConfidence(Confidence confidence) {
+        if (columns == null) {
+            return super.getAtConfidence(confidence);
+        }
+        int count = countAtConfidence(confidence);
+        Map<String, Card> selectedCards = new HashMap<>(capacityFor(count));
+        for (int i = 0; i < rows.length && selectedCards.size() < count; i++) {
+            if (confidenceAt(i) == confidence.ordinal()) {
+                selectedCards.put(columns.getQuestion(i), row(i));
+            }
+        }
+        return selectedCards;
+    }
+
+    @Override
+    //effects: returns all cards at or below confidence in this, scanning columns without loading them
+    public Map<String, Card> getBelowConfidence(Confidence confidence) {
+        if (columns == null) {
+            return super.getBelowConfidence(confidence);
+        }
+        int count = countBelowConfidence(confidence);
+        Map<String, Card> selectedCards = new HashMap<>(capacityFor(count));
+        for (int i = 0; i < rows.length && selectedCards.size() < count; i++) {
+            if (confidenceAt(i) <= confidence.ordinal()) {
+                selectedCards.put(columns.getQuestion(i), row(i));
+            }
+        }
+        return selectedCards;
+    }
+
+    @Override
+    //effects: returns all cards in this last studied before date or never studied, scanning columns without loading
+    //         them
+    public Map<String, Card> getLastStudiedBefore(LocalDate date) {
+        if (columns == null) {
+            return super.getLastStudiedBefore(date);
+        }
+        long epochDay = date.toEpochDay();
+        Map<String, Card> selectedCards = new HashMap<>();
+        for (int i = 0; i < rows.length; i++) {
+            if (studiedBefore(i, epochDay)) {
+                selectedCards.put(columns.getQuestion(i), row(i));
+            }
+        }
+        return selectedCards;
+    }
+
+    @Override
+    //effects: returns the later of the last study day of this and of its cards, scanning columns without loading them
+    protected int latestStudy() {
+        if (columns == null) {
+            return super.latestStudy();
+        }
+        int latest = getTimesStudied() == 0 ? Integer.MIN_VALUE : getLastStudyEpochDay();
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != null) {
+                latest = Math.max(latest, rows[i].getLatestStudyEpochDay());
+            } else if (columns.getTimesStudied(i) > 0) {
+                latest = Math.max(latest, columns.getLastStudyEpochDay(i));
+            }
+        }
+        return latest;
+    }
+
+    //effects: returns the cards of this as columns, which are the columns of this if its cards were never loaded or
+    //         handed out as Cards, and otherwise a copy of them
+    public CardColumns toColumns() {
+        if (columns != null) {
+            boolean viewed = false;
+            for (Card card : rows) {
+                viewed |= card != null;
+            }
+            if (!viewed) {
+                return columns;
+            }
+        }
+        return CardColumns.of(getAll().values());
+    }
+
     @Override
     //effects: returns all the cards in this topic as a collection
     public Collection<Card> getAllCards() {
@@ -0,0 +1,201 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Saves a Semester in the background shortly after it is modified, coalescing modifications that arrive within
+// delayMillis of each other into one save. A modification only pushes back the deadline of the one pending timer task,
+// so a burst of modifications does not queue a timer task each. The Semester is only ever read by the thread that
+// modifies it: modelExecutor runs SemesterStore.prepareSave to capture what needs writing, and the resulting SaveBatch
+// is then committed on a dedicated writer thread, so the modifying thread never waits for files to be forced to disk.
+public class AutoSaver implements StudyListener {
+    public static final long DEFAULT_DELAY_MILLIS = 2000;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final SemesterStore store;
+    private final Semester semester;
+    private final Executor modelExecutor;
+    private final long delayMillis;
+    private final Consumer<IOException> failureHandler;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService writer;
+    private ScheduledFuture<?> scheduledSave;
+    private long saveDeadline;
+    private volatile int generation;
+    private volatile boolean failed;
+    private volatile boolean closed;
+
+    // EFFECTS: starts saving semester to store delayMillis after it was last modified. modelExecutor must run tasks
+    // on the thread that modifies semester, or while holding whatever guards it. failureHandler is given any error
+    // saving, on that same thread
+    public AutoSaver(SemesterStore store, Semester semester, Executor modelExecutor, long delayMillis,
+                     Consumer<IOException> failureHandler) {
+        this.store = store;
+        this.semester = semester;
+        this.modelExecutor = modelExecutor;
+        this.delayMillis = delayMillis;
+        this.failureHandler = failureHandler;
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads("autosave-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.writer = Executors.newSingleThreadExecutor(daemonThreads("autosave-writer"));
+        semester.addListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: prepares a save of semester on the calling thread, which must be allowed to read semester, and queues
+    // it for writing. Returns a future that completes once it is written, or exceptionally if writing fails
+    public CompletableFuture<Void> saveNow() {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        cancelScheduledSave();
+        if (closed) {
+            written.completeExceptionally(new IOException("Autosave of " + semester.getName() + " is closed"));
+            return written;
+        }
+        SaveBatch batch;
+        try {
+            batch = store.prepareSave(semester);
+        } catch (IOException e) {
+            store.saveFailed(semester);
+            failureHandler.accept(e);
+            written.completeExceptionally(e);
+            return written;
+        }
+        int batchGeneration = generation;
+        writer.execute(() -> commit(batch, batchGeneration, written));
+        return written;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving semester and waits for the saves already queued to be written. Modifications made since
+    // the last save stay unsaved
+    public void close() {
+        closed = true;
+        cancelScheduledSave();
+        semester.removeListener(this);
+        timer.shutdownNow();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+        scheduleSave();
+    }
+
+    @Override
+    public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+        scheduleSave();
+    }
+
+    @Override
+    public void nameEdited(StudyMaterial material, String oldName) {
+        scheduleSave();
+    }
+
+    @Override
+    public void answerEdited(Card card) {
+        scheduleSave();
+    }
+
+    @Override
+    public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+        scheduleSave();
+    }
+
+    // EFFECTS: returns number of tasks waiting on the timer
+    int pendingTimerTasks() {
+        return timer.getQueue().size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts the delay before the next save, so that a burst of modifications is saved once. Only
+    // schedules a timer task if none is pending; otherwise moves its deadline
+    private synchronized void scheduleSave() {
+        if (closed) {
+            return;
+        }
+        saveDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        if (scheduledSave == null) {
+            scheduledSave = timer.schedule(this::saveWhenDue, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the timer thread, waits again if the deadline was pushed back since this was scheduled, and
+    // otherwise hands a save to modelExecutor. modelExecutor is called without holding the lock of this, since the
+    // thread it waits for may be firing events into scheduleSave
+    private void saveWhenDue() {
+        synchronized (this) {
+            if (closed || scheduledSave == null) {
+                return;
+            }
+            long remaining = saveDeadline - System.nanoTime();
+            if (remaining > 0) {
+                scheduledSave = timer.schedule(this::saveWhenDue, remaining, TimeUnit.NANOSECONDS);
+                return;
+            }
+            scheduledSave = null;
+        }
+        modelExecutor.execute(() -> {
+            if (!closed) {
+                saveNow();
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the scheduled save, if any
+    private synchronized void cancelScheduledSave() {
+        if (scheduledSave != null) {
+            scheduledSave.cancel(false);
+            scheduledSave = null;
+        }
+    }
+
+    // EFFECTS: commits batch on the writer thread and completes written. Skips batch if a save failed since it was
+    // prepared, since it only holds the changes made after the failed one; the recovery save rewrites everything
+    private void commit(SaveBatch batch, int batchGeneration, CompletableFuture<Void> written) {
+        if (failed || batchGeneration != generation) {
+            batch.discard();
+            written.completeExceptionally(new IOException("Skipped saving after an earlier save failed"));
+            return;
+        }
+        try {
+            batch.commit();
+            written.complete(null);
+        } catch (IOException e) {
+            failed = true;
+            written.completeExceptionally(e);
+            if (!closed) {
+                timer.execute(() -> modelExecutor.execute(() -> recover(e)));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the next save rewrite semester in full, reports e and schedules that save
+    private void recover(IOException e) {
+        store.saveFailed(semester);
+        generation++;
+        failed = false;
+        failureHandler.accept(e);
+        scheduleSave();
+    }
+
+    // EFFECTS: returns factory making daemon threads called name
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,343 @@
+package persistence;
+
+import model.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+// Constants and encodings shared by BinaryReader, MappedSemesterReader and BinaryWriter.
+// A file is MAGIC, a VERSION byte and the Semester node. Each node is its name, one Confidence byte and its study
+// dates as a count followed by zig-zag varint epoch days (first absolute, then deltas from the previous date),
+// then the sub-material count followed by the sub-material nodes. In version 1 files cards are nodes too, ending in
+// their answer. Version 2 files store the cards of a topic as columns (see model.CardColumns) instead: every
+// question, then every Confidence byte, then the study dates of every card encoded as above, then every answer, so
+// readers can build the columns of a topic without making a Card per row. Both readers decode the parts of a node they
+// share through an Input, so a stream and a mapped buffer are decoded by the same code.
+final class BinaryFormat {
+    static final byte[] MAGIC = {'F', 'M', 'E', 'M'};
+    static final int VERSION = 2;
+    static final int LEGACY_VERSION = 1;
+
+    private BinaryFormat() {
+    }
+
+    // EFFECTS: throws IOException if magic and version read from source are not a supported binary semester header
+    static void checkHeader(byte[] magic, int version, String source) throws IOException {
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException(source + " is not a binary semester file");
+        }
+        if (version != VERSION && version != LEGACY_VERSION) {
+            throw new IOException("Unsupported binary semester version " + version + " in " + source);
+        }
+    }
+
+    // EFFECTS: throws IOException if a byte of confidences read from source is not a Confidence ordinal
+    static void checkConfidences(byte[] confidences, String source) throws IOException {
+        for (byte confidence : confidences) {
+            if (confidence < 0 || confidence >= Confidence.values().length) {
+                throw new IOException("Invalid confidence " + confidence + " in " + source);
+            }
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a Confidence byte; throws IOException if it is not a Confidence ordinal of source
+    static Confidence readConfidence(Input in, String source) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= Confidence.values().length) {
+            throw new IOException("Corrupt semester file " + source + ": invalid confidence " + ordinal);
+        }
+        return Confidence.values()[ordinal];
+    }
+
+    // EFFECTS: returns length, a count or byte length read from a semester file; throws IOException if it is
+    // negative, since the file must be corrupt
+    static int checkLength(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Corrupt semester file: negative length " + length);
+        }
+        return length;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value as an unsigned LEB128 varint
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads an unsigned LEB128 varint; throws IOException if it is longer than an int
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in semester file");
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes s as a varint byte length followed by its UTF-8 bytes
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a length-prefixed UTF-8 string; throws IOException if its length is negative
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[checkLength(readVarInt(in))];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: reads an unsigned LEB128 varint at the position of buffer
+    static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in semester file");
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: reads a length-prefixed UTF-8 string at the position of buffer; throws IOException if its length is
+    // negative
+    static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[checkLength(readVarInt(buffer))];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: advances buffer past a length-prefixed string without decoding it; throws IOException if its length
+    // is negative
+    static void skipString(ByteBuffer buffer) throws IOException {
+        int length = checkLength(readVarInt(buffer));
+        buffer.position(buffer.position() + length);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a count of dates followed by zig-zag epoch day deltas, most recent first, and returns them as
+    // epoch days oldest first
+    static int[] readStudyDates(Input in) throws IOException {
+        int count = checkLength(in.readVarInt());
+        int[] studyDates = new int[count];
+        long epochDay = 0;
+        for (int i = 0; i < count; i++) {
+            epochDay += unZigZag(in.readVarInt());
+            studyDates[count - 1 - i] = (int) epochDay;
+        }
+        return studyDates;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the card count and card columns of a topic read from source, with answers decoded as in decodes
+    // strings
+    static CardColumns readColumns(Input in, String source) throws IOException {
+        int size = checkLength(in.readVarInt());
+        String[] questions = new String[size];
+        for (int i = 0; i < size; i++) {
+            questions[i] = in.readString();
+        }
+        byte[] confidences = new byte[size];
+        in.readFully(confidences);
+        checkConfidences(confidences, source);
+
+        int[] dateOffsets = new int[size + 1];
+        int[] epochDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            int count = checkLength(in.readVarInt());
+            int offset = dateOffsets[i];
+            if (offset + count > epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, Math.max(offset + count, epochDays.length * 2));
+            }
+            long epochDay = 0;
+            for (int j = 0; j < count; j++) {
+                epochDay += unZigZag(in.readVarInt());
+                epochDays[offset + j] = (int) epochDay;
+            }
+            dateOffsets[i + 1] = offset + count;
+        }
+        epochDays = Arrays.copyOf(epochDays, dateOffsets[size]);
+
+        return new CardColumns(questions, in.readStrings(size), confidences, dateOffsets, epochDays);
+    }
+
+    // EFFECTS: makes the empty StudyCollection type found at depth of the semester hierarchy (0 is Semester). Like
+    // JsonReader, the Semester keeps its default confidence
+    static StudyCollection<?> makeCollection(String name, Confidence confidence, int depth) {
+        if (depth == 0) {
+            return new Semester(name);
+        } else if (depth == 1) {
+            return new Course(name, confidence);
+        } else {
+            return new Topic(name, confidence);
+        }
+    }
+
+    // EFFECTS: returns Input decoding from in, with strings decoded as they are read and shared through pool unless
+    // it is null
+    static Input input(DataInput in, StringPool pool) {
+        return new StreamInput(in, pool);
+    }
+
+    // EFFECTS: returns Input decoding from the position of buffer, with strings read by readString shared through
+    // pool unless it is null, and strings read by readStrings left in buffer until they are first needed
+    static Input input(ByteBuffer buffer, StringPool pool) {
+        return new BufferInput(buffer, pool);
+    }
+
+    // EFFECTS: returns the copy of text in pool, or text if pool is null
+    private static String pooled(StringPool pool, String text) {
+        return pool == null ? text : pool.intern(text);
+    }
+
+    // EFFECTS: maps a signed int onto an unsigned one so small magnitudes encode to short varints
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    // EFFECTS: reverses zigZag
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // A source a binary semester is decoded from
+    interface Input {
+        // MODIFIES: this
+        // EFFECTS: reads one byte as an unsigned int
+        int readUnsignedByte() throws IOException;
+
+        // MODIFIES: this
+        // EFFECTS: reads bytes.length bytes into bytes
+        void readFully(byte[] bytes) throws IOException;
+
+        // MODIFIES: this
+        // EFFECTS: reads an unsigned LEB128 varint
+        int readVarInt() throws IOException;
+
+        // MODIFIES: this
+        // EFFECTS: reads a length-prefixed UTF-8 string
+        String readString() throws IOException;
+
+        // MODIFIES: this
+        // EFFECTS: reads count length-prefixed UTF-8 strings and returns the string at each index, which may only be
+        // decoded when it is first asked for
+        IntFunction<String> readStrings(int count) throws IOException;
+    }
+
+    // Input reading a stream, decoding every string as it is read
+    private static final class StreamInput implements Input {
+        private final DataInput in;
+        private final StringPool pool;
+
+        // EFFECTS: makes input reading from in, sharing strings through pool unless it is null
+        StreamInput(DataInput in, StringPool pool) {
+            this.in = in;
+            this.pool = pool;
+        }
+
+        @Override
+        public int readUnsignedByte() throws IOException {
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+            in.readFully(bytes);
+        }
+
+        @Override
+        public int readVarInt() throws IOException {
+            return BinaryFormat.readVarInt(in);
+        }
+
+        @Override
+        public String readString() throws IOException {
+            return pooled(pool, BinaryFormat.readString(in));
+        }
+
+        @Override
+        public IntFunction<String> readStrings(int count) throws IOException {
+            String[] strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                strings[i] = readString();
+            }
+            return i -> strings[i];
+        }
+    }
+
+    // Input reading a mapped buffer, leaving strings read by readStrings in it until they are asked for
+    private static final class BufferInput implements Input {
+        private final ByteBuffer buffer;
+        private final StringPool pool;
+
+        // EFFECTS: makes input reading from the position of buffer, sharing strings read by readString through pool
+        // unless it is null
+        BufferInput(ByteBuffer buffer, StringPool pool) {
+            this.buffer = buffer;
+            this.pool = pool;
+        }
+
+        @Override
+        public int readUnsignedByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public void readFully(byte[] bytes) {
+            buffer.get(bytes);
+        }
+
+        @Override
+        public int readVarInt() throws IOException {
+            return BinaryFormat.readVarInt(buffer);
+        }
+
+        @Override
+        public String readString() throws IOException {
+            return pooled(pool, BinaryFormat.readString(buffer));
+        }
+
+        @Override
+        public IntFunction<String> readStrings(int count) throws IOException {
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = buffer.position();
+                skipString(buffer);
+            }
+            return i -> readStringAt(offsets[i]);
+        }
+
+        // EFFECTS: decodes the string stored at offset of buffer without moving buffer's position
+        private String readStringAt(int offset) {
+            ByteBuffer reader = buffer.duplicate();
+            reader.position(offset);
+            try {
+                return BinaryFormat.readString(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
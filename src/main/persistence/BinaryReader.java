@@ -0,0 +1,86 @@
+package persistence;
+
+import model.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a reader that reads a Semester from the compact binary representation stored in file (see BinaryFormat)
+public class BinaryReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int TOPIC_DEPTH = 2;
+    private static final int CARD_DEPTH = 3;
+
+    private final String source;
+    private final StringPool stringPool;
+    private int version;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file, sharing repeated names, questions and answers through
+    // stringPool, which the semester read keeps using, unless it is null
+    public BinaryReader(String source, StringPool stringPool) {
+        this.source = source;
+        this.stringPool = stringPool;
+    }
+
+    // EFFECTS: reads Semester from file, applies any modifications logged in its journal and returns it marked clean;
+    // throws IOException if an error occurs reading data from file or the file is not a supported binary semester
+    public Semester read() throws IOException {
+        Semester semester;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(source), BUFFER_SIZE))) {
+            readHeader(in);
+            semester = (Semester) readMaterial(BinaryFormat.input(in, stringPool), 0);
+        }
+        semester.setStringPool(stringPool);
+        SemesterJournal.replay(source, semester);
+        semester.markClean();
+        return semester;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads and checks the magic bytes and version
+    private void readHeader(DataInput in) throws IOException {
+        byte[] magic = new byte[BinaryFormat.MAGIC.length];
+        in.readFully(magic);
+        version = in.readUnsignedByte();
+        BinaryFormat.checkHeader(magic, version, source);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the StudyMaterial node at depth of the semester hierarchy (0 is Semester, 3 is Card)
+    @SuppressWarnings("unchecked")
+    private StudyMaterial readMaterial(BinaryFormat.Input in, int depth) throws IOException {
+        String name = in.readString();
+        Confidence confidence = BinaryFormat.readConfidence(in, source);
+        int[] studyDates = BinaryFormat.readStudyDates(in);
+
+        if (depth == CARD_DEPTH) {
+            Card card = new Card(name, in.readString(), confidence);
+            card.setStudyEpochDays(studyDates);
+            return card;
+        }
+
+        if (depth == TOPIC_DEPTH && version != BinaryFormat.LEGACY_VERSION) {
+            Topic topic = new Topic(name, confidence, BinaryFormat.readColumns(in, source));
+            topic.setStudyEpochDays(studyDates);
+            return topic;
+        }
+
+        StudyCollection<StudyMaterial> sc =
+                (StudyCollection<StudyMaterial>) BinaryFormat.makeCollection(name, confidence, depth);
+        sc.setStudyEpochDays(studyDates);
+        int size = BinaryFormat.checkLength(in.readVarInt());
+        List<StudyMaterial> materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            materials.add(readMaterial(in, depth + 1));
+        }
+        sc.addAll(materials);
+        return sc;
+    }
+}
@@ -0,0 +1,101 @@
+package persistence;
+
+import model.*;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.List;
+
+// Represents a writer that writes the compact binary representation of a Semester to file (see BinaryFormat)
+public class BinaryWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String destination;
+    private final OutputStream stream;
+    private DataOutputStream out;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+        this.stream = null;
+    }
+
+    // EFFECTS: constructs writer to write to stream, which is closed along with the writer
+    public BinaryWriter(OutputStream stream) {
+        this.destination = null;
+        this.stream = stream;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // be opened for writing
+    public void open() throws FileNotFoundException {
+        OutputStream target = stream != null ? stream : new FileOutputStream(destination);
+        out = new DataOutputStream(new BufferedOutputStream(target, BUFFER_SIZE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes binary representation of semester to file;
+    // throws IOException if an error occurs writing to file
+    public void write(Semester semester) throws IOException {
+        out.write(BinaryFormat.MAGIC);
+        out.writeByte(BinaryFormat.VERSION);
+        writeMaterial(semester);
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes sm and, recursively, its sub-materials, writing the cards of a topic as columns
+    private void writeMaterial(StudyMaterial sm) throws IOException {
+        BinaryFormat.writeString(out, sm.getName());
+        out.writeByte(sm.getConfidence().ordinal());
+        writeStudyDates(sm.getStudyDates());
+
+        if (sm instanceof Topic) {
+            writeColumns(((Topic) sm).toColumns());
+        } else {
+            StudyCollection<?> sc = (StudyCollection<?>) sm;
+            BinaryFormat.writeVarInt(out, sc.size());
+            for (StudyMaterial sub : sc.getAll().values()) {
+                writeMaterial(sub);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the number of cards in columns, then each column in turn
+    private void writeColumns(CardColumns columns) throws IOException {
+        int size = columns.size();
+        BinaryFormat.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            BinaryFormat.writeString(out, columns.getQuestion(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeByte(columns.getConfidenceOrdinal(i));
+        }
+        for (int i = 0; i < size; i++) {
+            writeStudyDates(columns.getStudyDates(i));
+        }
+        for (int i = 0; i < size; i++) {
+            BinaryFormat.writeString(out, columns.getAnswer(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the number of dates, then each date as the zig-zag delta in epoch days from the previous one
+    private void writeStudyDates(List<LocalDate> dates) throws IOException {
+        BinaryFormat.writeVarInt(out, dates.size());
+        long previous = 0;
+        for (LocalDate date : dates) {
+            long epochDay = date.toEpochDay();
+            BinaryFormat.writeVarInt(out, BinaryFormat.zigZag((int) (epochDay - previous)));
+            previous = epochDay;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package persistence;
+
+import model.Card;
+import model.StudyCollection;
+import model.StudyMaterial;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Exports the cards of a Semester, Course or Topic to a CSV or TSV file with one card per row laid out as
+// path,question,answer,confidence,timesStudied,lastStudied, where path holds the names from the exported collection
+// down to the topic of the card separated by PATH_SEPARATOR and lastStudied is an ISO date, empty if never studied.
+// Rows are written while walking the hierarchy, so no list of the cards is built. Fields holding the delimiter, a
+// quote or a line break are quoted as in RFC 4180, as CardImporter expects.
+public class CardExporter {
+    public static final char PATH_SEPARATOR = '/';
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] HEADER =
+            {"path", "question", "answer", "confidence", "timesStudied", "lastStudied"};
+
+    private final String destination;
+    private final char delimiter;
+    private Writer writer;
+    private int rows;
+
+    // EFFECTS: constructs exporter writing tab separated rows if destination ends in CardImporter.TSV_EXTENSION,
+    // comma separated otherwise
+    public CardExporter(String destination) {
+        this(destination, destination.endsWith(CardImporter.TSV_EXTENSION) ? '\t' : ',');
+    }
+
+    // EFFECTS: constructs exporter writing rows separated by delimiter to destination file
+    public CardExporter(String destination, char delimiter) {
+        this.destination = destination;
+        this.delimiter = delimiter;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a header row and a row for each card in collection to destination, replacing it, and returns
+    // the number of cards written. Loads any material of collection that is not loaded yet;
+    // throws IOException if an error occurs writing to file
+    public int export(StudyCollection<?> collection) throws IOException {
+        rows = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(destination)),
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer = out;
+            writeRow(HEADER);
+            writeCollection(collection, collection.getName());
+        } finally {
+            writer = null;
+        }
+        return rows;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a row for each card in sc, whose path is path, recursing into its sub-collections
+    private void writeCollection(StudyCollection<?> sc, String path) throws IOException {
+        for (StudyMaterial sm : sc.getAll().values()) {
+            if (sm instanceof Card) {
+                writeCard((Card) sm, path);
+            } else {
+                writeCollection((StudyCollection<?>) sm, path + PATH_SEPARATOR + sm.getName());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the row of card, whose topic has path
+    private void writeCard(Card card, String path) throws IOException {
+        String lastStudied = card.getTimesStudied() == 0 ? "" : card.getLastStudyDate().toString();
+        writeRow(new String[]{path, card.getQuestion(), card.getAnswer(), card.getConfidence().toString(),
+                Integer.toString(card.getTimesStudied()), lastStudied});
+        rows++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes fields as one row
+    private void writeRow(String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeField(fields[i]);
+        }
+        writer.write('\n');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes field, quoted with its quotes doubled if it holds the delimiter, a quote or a line break
+    private void writeField(String field) throws IOException {
+        if (!needsQuotes(field)) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int quote = field.indexOf('"'); quote >= 0; quote = field.indexOf('"', start)) {
+            writer.write(field, start, quote + 1 - start);
+            writer.write('"');
+            start = quote + 1;
+        }
+        writer.write(field, start, field.length() - start);
+        writer.write('"');
+    }
+
+    // EFFECTS: returns true if field must be quoted to be read back as one field
+    private boolean needsQuotes(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,242 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.*;
+
+// Imports cards into a Semester from a CSV or TSV file holding one card per row laid out as
+// course,topic,question,answer[,confidence]. Rows are streamed from the file, so memory holds little more than the
+// cards themselves. Missing courses and topics are created, and new ones are only added to the semester once the
+// whole file is read, so listeners such as SemesterJournal see one addition per new course or topic rather than one
+// per card. Cards added to topics that already exist fire one event each, so imports into a stored semester should
+// go through SemesterStore.importCards, which does not journal them. Cards are made by a SemesterBuilder, so they are
+// all dated by one clock read and a question already in its topic is reported back rather than thrown. Fields may be
+// quoted as in RFC 4180, with doubled quotes standing for a quote, and a header row is skipped.
+public class CardImporter {
+    public static final String TSV_EXTENSION = ".tsv";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final List<String> HEADER = Arrays.asList("course", "topic", "question", "answer");
+
+    private final String source;
+    private final char delimiter;
+
+    private Semester semester;
+    private SemesterBuilder builder;
+    private ImportReport report;
+    private Map<String, Course> newCourses;
+    private Map<Course, Map<String, Topic>> newTopics;
+    private String targetCourse;
+    private String targetTopic;
+    private Topic target;
+
+    private Reader reader;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private long line;
+
+    // EFFECTS: constructs importer reading tab separated rows if source ends in TSV_EXTENSION, comma separated otherwise
+    public CardImporter(String source) {
+        this(source, source.endsWith(TSV_EXTENSION) ? '\t' : ',');
+    }
+
+    // EFFECTS: constructs importer reading rows separated by delimiter from source file
+    public CardImporter(String source, char delimiter) {
+        this.source = source;
+        this.delimiter = delimiter;
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: adds the cards in source to semester and returns a report of what was added and skipped. Rows whose
+    // question is already in their topic, or earlier in the file, are skipped as duplicates. Rows without four or five
+    // fields, with an empty course, topic or question, or with an unknown confidence are skipped as malformed;
+    // throws IOException if an error occurs reading source, after adding the rows read before it
+    public ImportReport importInto(Semester semester) throws IOException {
+        this.semester = semester;
+        builder = new SemesterBuilder(Clock.systemDefaultZone(), semester.getStringPool());
+        report = new ImportReport();
+        newCourses = new LinkedHashMap<>();
+        newTopics = new IdentityHashMap<>();
+        target = null;
+        buffer = new char[BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        line = 1;
+
+        List<String> fields = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            reader = in;
+            long rowLine = line;
+            boolean first = true;
+            while (readRow(fields)) {
+                if (!(first && isHeader(fields)) && !(fields.size() == 1 && fields.get(0).isEmpty())) {
+                    addRow(fields, rowLine);
+                }
+                first = false;
+                rowLine = line;
+            }
+        } finally {
+            attachNewMaterials();
+            reader = null;
+            buffer = null;
+        }
+        return report;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the card described by fields, from the row starting at rowLine, to its topic
+    private void addRow(List<String> fields, long rowLine) {
+        if (fields.size() < HEADER.size() || fields.size() > HEADER.size() + 1) {
+            report.addMalformed(rowLine, "expected " + HEADER.size() + " or " + (HEADER.size() + 1) + " fields");
+            return;
+        }
+        String courseName = fields.get(0).trim();
+        String topicName = fields.get(1).trim();
+        String question = fields.get(2).trim();
+        if (courseName.isEmpty() || topicName.isEmpty() || question.isEmpty()) {
+            report.addMalformed(rowLine, "empty course, topic or question");
+            return;
+        }
+        Confidence confidence = Confidence.NONE;
+        if (fields.size() > HEADER.size() && !fields.get(HEADER.size()).trim().isEmpty()) {
+            String level = fields.get(HEADER.size()).trim();
+            try {
+                confidence = Confidence.valueOf(level.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                report.addMalformed(rowLine, "unknown confidence " + level);
+                return;
+            }
+        }
+
+        Topic topic = targetFor(courseName, topicName);
+        if (builder.card(topic, question, fields.get(3), confidence, null) == null) {
+            report.addDuplicate(rowLine, courseName + "/" + topicName + "/" + question);
+            return;
+        }
+        report.addImported(1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the topic called topicName in the course called courseName, creating either if missing.
+    // Remembers it, since consecutive rows are usually for the same topic
+    private Topic targetFor(String courseName, String topicName) {
+        if (target != null && courseName.equals(targetCourse) && topicName.equals(targetTopic)) {
+            return target;
+        }
+        Course course = semester.get(courseName);
+        if (course == null) {
+            course = newCourses.computeIfAbsent(courseName, Course::new);
+        }
+        Topic topic = course.get(topicName);
+        if (topic == null) {
+            topic = newTopics.computeIfAbsent(course, c -> new LinkedHashMap<>())
+                    .computeIfAbsent(topicName, Topic::new);
+        }
+        targetCourse = courseName;
+        targetTopic = topicName;
+        target = topic;
+        return topic;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the new topics to their courses and the new courses to semester
+    private void attachNewMaterials() {
+        target = null;
+        for (Map.Entry<Course, Map<String, Topic>> entry : newTopics.entrySet()) {
+            entry.getKey().addAll(entry.getValue().values());
+        }
+        semester.addAll(newCourses.values());
+    }
+
+    // EFFECTS: returns true if fields are the column names of the layout
+    private boolean isHeader(List<String> fields) {
+        if (fields.size() < HEADER.size()) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.size(); i++) {
+            if (!fields.get(i).trim().equalsIgnoreCase(HEADER.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this, fields
+    // EFFECTS: replaces fields with the fields of the next row, returning false if there are no more rows. Quoted
+    // fields may span lines, whose CRLF endings are read as LF, and a quote left open runs to the end of the file
+    private boolean readRow(List<String> fields) throws IOException {
+        fields.clear();
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == '"' && peek() == '"') {
+                    read();
+                    field.append('"');
+                } else if (c == '"') {
+                    quoted = false;
+                } else if (c == -1) {
+                    fields.add(field.toString());
+                    return true;
+                } else if (c != '\r' || peek() != '\n') {
+                    countLine(c);
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                countLine(c);
+                fields.add(field.toString());
+                return true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts c if it ends a line
+    private void countLine(int c) {
+        if (c == '\n') {
+            line++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, -1 at the end of the file
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, -1 at the end of the file
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
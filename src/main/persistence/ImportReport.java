@@ -0,0 +1,99 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The outcome of a CardImporter run: how many cards were added and which rows were skipped, either because their
+// card already existed or because the row could not be understood. Only the first MAX_EXAMPLES skipped rows of each
+// kind are kept, so a report stays small however large the file
+public class ImportReport {
+    public static final int MAX_EXAMPLES = 20;
+
+    private int imported;
+    private int duplicates;
+    private int malformed;
+    private final List<String> duplicateExamples;
+    private final List<String> malformedExamples;
+
+    // EFFECTS: makes report of an import that has not added or skipped anything yet
+    ImportReport() {
+        this.duplicateExamples = new ArrayList<>();
+        this.malformedExamples = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that count cards were added
+    void addImported(int count) {
+        imported += count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the row at line was skipped because the card at path already exists
+    void addDuplicate(long line, String path) {
+        duplicates++;
+        if (duplicateExamples.size() < MAX_EXAMPLES) {
+            duplicateExamples.add("line " + line + ": " + path);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the row at line was skipped for reason
+    void addMalformed(long line, String reason) {
+        malformed++;
+        if (malformedExamples.size() < MAX_EXAMPLES) {
+            malformedExamples.add("line " + line + ": " + reason);
+        }
+    }
+
+    //effects: returns number of cards added
+    public int getImported() {
+        return imported;
+    }
+
+    //effects: returns number of rows skipped because their card already existed
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    //effects: returns number of rows skipped because they could not be understood
+    public int getMalformed() {
+        return malformed;
+    }
+
+    //effects: returns the first rows skipped because their card already existed
+    public List<String> getDuplicateExamples() {
+        return Collections.unmodifiableList(duplicateExamples);
+    }
+
+    //effects: returns the first rows skipped because they could not be understood
+    public List<String> getMalformedExamples() {
+        return Collections.unmodifiableList(malformedExamples);
+    }
+
+    @Override
+    //effects: returns the counts of this followed by the examples of skipped rows, one per line
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Imported %d cards, skipped %d duplicates and %d malformed rows.",
+                imported, duplicates, malformed));
+        appendExamples(report, "Duplicates", duplicates, duplicateExamples);
+        appendExamples(report, "Malformed rows", malformed, malformedExamples);
+        return report.toString();
+    }
+
+    // MODIFIES: report
+    // EFFECTS: appends the examples of a kind of skipped row to report, noting how many more were not kept
+    private void appendExamples(StringBuilder report, String kind, int count, List<String> examples) {
+        if (examples.isEmpty()) {
+            return;
+        }
+        report.append('\n').append(kind).append(':');
+        for (String example : examples) {
+            report.append("\n    ").append(example);
+        }
+        if (count > examples.size()) {
+            report.append("\n    and ").append(count - examples.size()).append(" more");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package persistence;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Constants and study date encodings shared by the JSON readers and writers.
+// Version 1 files store each study date as a {"year", "month", "day"} object. Version 2 files record VERSION under
+// VERSION_KEY in their root object and store the study dates of a material as a flat array of epoch days, the first
+// absolute and each later one the delta from the date before it. Readers accept both, deciding per date.
+// Files whose name ends in COMPRESSED_EXTENSION hold the same JSON gzip-compressed, and are streamed through a
+// Deflater or Inflater so they are never held uncompressed in memory.
+public final class JsonFormat {
+    public static final String VERSION_KEY = "version";
+    public static final int VERSION = 2;
+    public static final String COMPRESSED_EXTENSION = ".gz";
+    static final int LEGACY_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private JsonFormat() {
+    }
+
+    // EFFECTS: throws JSONException if version is newer than this reader understands
+    static void checkVersion(int version) {
+        if (version > VERSION) {
+            throw new JSONException("Unsupported JSON semester version " + version);
+        }
+    }
+
+    // EFFECTS: returns true if the file at path holds compressed JSON
+    static boolean isCompressed(String path) {
+        return path.endsWith(COMPRESSED_EXTENSION);
+    }
+
+    // EFFECTS: throws IllegalArgumentException unless level is a Deflater compression level from NO_COMPRESSION to
+    // BEST_COMPRESSION, or DEFAULT_COMPRESSION
+    static void checkCompressionLevel(int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+    }
+
+    // EFFECTS: returns stream that gzip-compresses what is written to it at level into out, which it closes along
+    // with itself
+    static OutputStream compress(OutputStream out, int level) throws IOException {
+        checkCompressionLevel(level);
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    // EFFECTS: returns stream that decompresses the gzip data read from in, which it closes along with itself;
+    // throws IOException if in does not start with a gzip header
+    static InputStream decompress(InputStream in) throws IOException {
+        return new GZIPInputStream(in, BUFFER_SIZE);
+    }
+
+    // EFFECTS: returns dates as an array of epoch day deltas
+    public static JSONArray studyDatesToJson(List<LocalDate> dates) {
+        JSONArray json = new JSONArray();
+        long previous = 0;
+        for (LocalDate date : dates) {
+            long epochDay = date.toEpochDay();
+            json.put(epochDay - previous);
+            previous = epochDay;
+        }
+        return json;
+    }
+
+    // EFFECTS: returns the dates in json, stored either as epoch day deltas or as year, month and day objects, as
+    // epoch days oldest first
+    static int[] studyEpochDaysFromJson(JSONArray json) {
+        int[] epochDays = new int[json.length()];
+        long epochDay = 0;
+        for (int i = 0; i < json.length(); i++) {
+            Object date = json.get(i);
+            int day;
+            if (date instanceof JSONObject) {
+                JSONObject jsonDate = (JSONObject) date;
+                day = (int) LocalDate.of(jsonDate.getInt("year"), jsonDate.getInt("month"), jsonDate.getInt("day"))
+                        .toEpochDay();
+            } else {
+                epochDay += json.getLong(i);
+                day = (int) epochDay;
+            }
+            epochDays[epochDays.length - 1 - i] = day;
+        }
+        return epochDays;
+    }
+}
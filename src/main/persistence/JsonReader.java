@@ -1,65 +1,119 @@
 package persistence;
 
-import exceptions.DuplicateElementException;
 import model.*;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 // Represents a reader that reads workroom from JSON data stored in file
 // adapted from JsonSerializationDemo @ https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
 
 public class JsonReader {
     private final String source;
+    private final boolean parallel;
+    private final SemesterBuilder builder;
+    private ShardIndex shardIndex;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
+        this(source, false);
+    }
+
+    // EFFECTS: constructs reader to read from source file. If parallel, the courses of the semester and the topics of
+    // each course are parsed as fork/join tasks in the common pool; the result is the same as reading sequentially
+    public JsonReader(String source, boolean parallel) {
+        this(source, parallel, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file as above, sharing repeated card text through stringPool,
+    // which the semester read keeps using, unless it is null
+    public JsonReader(String source, boolean parallel, StringPool stringPool) {
         this.source = source;
+        this.parallel = parallel;
+        this.builder = new SemesterBuilder(Clock.systemDefaultZone(), stringPool, (sc, name) ->
+                System.out.printf("%s %s already contains %s%n", sc.getClass().getSimpleName(), sc, name));
     }
 
-    // EFFECTS: reads Semester from file and returns it;
-    // throws IOException if an error occurs reading data from file
+    // EFFECTS: reads Semester from file, applies any modifications logged in its journal and returns it marked clean.
+    // If the file is the manifest of a sharded semester (see ShardedJsonWriter), each sharded material only reads its
+    // shard file when first accessed; throws IOException if an error occurs reading data from file
     public Semester read() throws IOException {
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
-        return parseSemester(jsonObject);
+        Semester semester = parseSemester(jsonObject);
+        SemesterJournal.replay(source, semester);
+        semester.markClean();
+        return semester;
     }
 
 
-    // EFFECTS: reads source file as string and returns it
+    // EFFECTS: reads source file as string, decompressing it if it is compressed (see JsonFormat), and returns it
     private String readFile(String source) throws IOException {
         StringBuilder contentBuilder = new StringBuilder();
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
+        try (BufferedReader reader = openReader(source)) {
+            reader.lines().forEach(contentBuilder::append);
         }
 
         return contentBuilder.toString();
     }
 
+    // EFFECTS: opens a reader of the text in source file
+    private BufferedReader openReader(String source) throws IOException {
+        if (JsonFormat.isCompressed(source)) {
+            InputStream in = JsonFormat.decompress(Files.newInputStream(Paths.get(source)));
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the shards of the last sharded semester read, null if it was not sharded
+    ShardIndex getShardIndex() {
+        return shardIndex;
+    }
+
     // EFFECTS: parses Semester from JSON object and returns it
     private Semester parseSemester(JSONObject jsonObject) {
+        JsonFormat.checkVersion(jsonObject.optInt(JsonFormat.VERSION_KEY, JsonFormat.LEGACY_VERSION));
         String name = jsonObject.getString("name");
-        Semester semester = new Semester(name);
-        addStudyDates(semester, jsonObject);
-
         JSONArray jsonCourses = jsonObject.getJSONArray("materialMap");
+        Semester semester = builder.semester(name, studyEpochDays(jsonObject), jsonCourses.length());
+        if (jsonObject.has(ShardedJsonWriter.SHARD_DEPTH_KEY)) {
+            Path directory = Paths.get(source).toAbsolutePath().getParent();
+            shardIndex = new ShardIndex(directory, jsonObject.getInt(ShardedJsonWriter.SHARD_DEPTH_KEY));
+        }
+
         addStudyMaterials(semester, jsonCourses);
         return semester;
     }
 
 
     // MODIFIES: sc
-    // EFFECTS: parses StudyMaterials from JsonObject and adds them to sc
+    // EFFECTS: parses StudyMaterials from JsonObject and adds them to sc. Sharded manifests are always parsed
+    // sequentially, since their stubs are recorded in shardIndex
     private void addStudyMaterials(StudyCollection<?> sc, JSONArray jsonMaterialMap) {
+        if (parallel && shardIndex == null && !(sc instanceof Topic)) {
+            addStudyMaterialsInParallel(sc, jsonMaterialMap);
+            return;
+        }
         for (Object json : jsonMaterialMap) {
             JSONObject nextJsonSM = (JSONObject) json;
             addStudyMaterial(sc, nextJsonSM);
@@ -67,45 +121,130 @@ public class JsonReader {
     }
 
     // MODIFIES: sc
-    // EFFECTS: parses StudyMaterial from JsonObject and adds them to sc
+    // EFFECTS: parses the StudyMaterials in jsonMaterialMap with one fork/join task per distinct name not yet in sc,
+    // each into its own empty copy of sc that it is taken out of again, then adds them to sc in the order their names
+    // first appear. Entries sharing a name are parsed in order by the same task, and entries for names already in sc
+    // are merged into them on this thread, so duplicates are merged exactly as they are when reading sequentially
+    @SuppressWarnings("unchecked")
+    private void addStudyMaterialsInParallel(StudyCollection<?> sc, JSONArray jsonMaterialMap) {
+        Map<String, List<JSONObject>> jsonByName = new LinkedHashMap<>();
+        for (Object json : jsonMaterialMap) {
+            JSONObject nextJsonSM = (JSONObject) json;
+            jsonByName.computeIfAbsent(nextJsonSM.getString("name"), name -> new ArrayList<>()).add(nextJsonSM);
+        }
+
+        List<ForkJoinTask<StudyMaterial>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<JSONObject>> entry : jsonByName.entrySet()) {
+            List<JSONObject> jsonSameName = entry.getValue();
+            if (sc.contains(entry.getKey())) {
+                for (JSONObject jsonSM : jsonSameName) {
+                    addStudyMaterial(sc, jsonSM);
+                }
+            } else {
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    StudyCollection<?> holder = emptyCopyOf(sc);
+                    for (JSONObject jsonSM : jsonSameName) {
+                        addStudyMaterial(holder, jsonSM);
+                    }
+                    return holder.remove(entry.getKey());
+                }));
+            }
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        List<StudyMaterial> parsed = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<StudyMaterial> task : tasks) {
+            parsed.add(task.join());
+        }
+        ((StudyCollection<StudyMaterial>) sc).addAll(parsed);
+    }
+
+    // EFFECTS: returns an empty Semester or Course with the same type and name as sc, so that duplicate elements are
+    // reported the same way as when parsing into sc
+    private StudyCollection<?> emptyCopyOf(StudyCollection<?> sc) {
+        if (sc instanceof Semester) {
+            return new Semester(sc.getName());
+        }
+        return new Course(sc.getName());
+    }
+
+    // MODIFIES: sc
+    // EFFECTS: parses StudyMaterial from JsonObject and adds them to sc. If sc already has a material with its name,
+    // that material takes its study dates and answer and any sub-materials are merged into it
     public void addStudyMaterial(StudyCollection<?> sc, JSONObject jsonStudyMaterial) {
+        if (shardIndex != null && jsonStudyMaterial.has(ShardedJsonWriter.SHARD_KEY)) {
+            addShardedMaterial(sc, jsonStudyMaterial);
+            return;
+        }
         String name = jsonStudyMaterial.getString("name");
         Confidence confidence = Confidence.valueOf(jsonStudyMaterial.getString("confidence"));
-        try {
-            sc.add(name, confidence);
-        } catch (DuplicateElementException e) {
-            System.out.println(e.getMessage());
-        }
-        StudyMaterial newStudyMaterial = sc.get(name);
-        addStudyDates(newStudyMaterial, jsonStudyMaterial);
-
-        if (jsonStudyMaterial.has("materialMap")) {
-            // if it has materialMap, it must be also another StudyCollection
-            JSONArray jsonStudyMaterials = jsonStudyMaterial.getJSONArray("materialMap");
-            addStudyMaterials((StudyCollection<?>) newStudyMaterial, jsonStudyMaterials);
+        int[] epochDays = studyEpochDays(jsonStudyMaterial);
+
+        // if it has materialMap, it must be also another StudyCollection
+        JSONArray jsonStudyMaterials = jsonStudyMaterial.optJSONArray("materialMap");
+        if (jsonStudyMaterials != null) {
+            StudyCollection<?> collection =
+                    builder.collection(sc, name, confidence, epochDays, jsonStudyMaterials.length());
+            if (collection == null) {
+                collection = (StudyCollection<?>) sc.get(name);
+                collection.setStudyEpochDays(epochDays);
+            }
+            addStudyMaterials(collection, jsonStudyMaterials);
         } else {
             //base case. If it doesn't have materialMap, Study Material is a card. StudyCollection is a Topic
             String answer = jsonStudyMaterial.getString("answer");
+            if (builder.card((Topic) sc, name, answer, confidence, epochDays) == null) {
+                Card card = (Card) sc.get(name);
+                card.setStudyEpochDays(epochDays);
+                card.setAnswer(answer);
+            }
+        }
+    }
 
-            Card newCard = (Card) newStudyMaterial;
-            newCard.setAnswer(answer);
+    // MODIFIES: this, sc
+    // EFFECTS: adds the Course or Topic described by jsonStub to sc and records its shard. Its sub-materials are only
+    // read from the shard file when first accessed
+    @SuppressWarnings("unchecked")
+    private void addShardedMaterial(StudyCollection<?> sc, JSONObject jsonStub) {
+        String name = jsonStub.getString("name");
+        Confidence confidence = Confidence.valueOf(jsonStub.getString("confidence"));
+        String file = jsonStub.getString(ShardedJsonWriter.SHARD_KEY);
+        String path = shardIndex.getDirectory().resolve(file).toString();
+
+        StudyCollection<?> sharded;
+        if (sc instanceof Semester) {
+            sharded = new Course(name, confidence, shardLoader(path, new Course(name)));
+        } else {
+            sharded = new Topic(name, confidence, shardLoader(path, new Topic(name)));
+        }
+        addStudyDates(sharded, jsonStub);
+        ((StudyCollection<StudyMaterial>) sc).addAll(Collections.singletonList(sharded));
+        if (sc.get(name) == sharded) {
+            shardIndex.put(sharded, file);
         }
     }
 
+    // EFFECTS: returns loader that parses the sub-materials in the shard file at path into holder and returns them
+    private <M extends StudyMaterial> Supplier<Collection<M>> shardLoader(String path, StudyCollection<M> holder) {
+        return () -> {
+            try {
+                JSONObject jsonShard = new JSONObject(readFile(path));
+                addStudyMaterials(holder, jsonShard.getJSONArray("materialMap"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return holder.getAll().values();
+        };
+    }
+
     // MODIFIES: sm
-    // EFFECTS: parses StudyMaterial Fields from JsonObject and adds them to sm
+    // EFFECTS: parses StudyMaterial Fields from JsonObject, in either format of JsonFormat, and adds them to sm
     private void addStudyDates(StudyMaterial sm, JSONObject jsonObject) {
-        List<LocalDate> studyDates = new ArrayList<>();
-        JSONArray jsonDates = jsonObject.getJSONArray("studyDates");
-        for (Object jsonDate : jsonDates) {
-            JSONObject nextJsonDate = (JSONObject) jsonDate;
-            int year = nextJsonDate.getInt("year");
-            int month = nextJsonDate.getInt("month");
-            int day = nextJsonDate.getInt("day");
-
-            studyDates.add(LocalDate.of(year, month, day));
-        }
+        sm.setStudyEpochDays(studyEpochDays(jsonObject));
+    }
 
-        sm.setStudyDates(studyDates);
+    // EFFECTS: parses the study dates in jsonObject, in either format of JsonFormat, as epoch days, oldest first
+    private int[] studyEpochDays(JSONObject jsonObject) {
+        return JsonFormat.studyEpochDaysFromJson(jsonObject.getJSONArray("studyDates"));
     }
 }
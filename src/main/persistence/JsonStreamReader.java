@@ -0,0 +1,242 @@
+package persistence;
+
+import exceptions.NoElementException;
+import model.*;
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Represents a reader that builds a Semester from JSON data stored in file one token at a time, without holding
+// the file contents or a JSON DOM in memory. Produces the same Semester as JsonReader, merging materials that share a
+// name the same way. Compressed files (see JsonFormat) are decompressed as they are read.
+public class JsonStreamReader {
+    private static final int SEMESTER = 0;
+    private static final int COURSE = 1;
+    private static final int TOPIC = 2;
+    private static final int CARD = 3;
+
+    private final String source;
+    private final StringPool stringPool;
+
+    // the fields of one JSON StudyMaterial object, collected until the object is closed
+    private static class MaterialFields {
+        private String name;
+        private Confidence confidence;
+        private String answer;
+        private int[] studyDates;
+        private List<StudyMaterial> materials = new ArrayList<>();
+    }
+
+    // EFFECTS: constructs reader to read from source file
+    public JsonStreamReader(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file, sharing repeated card questions and answers through
+    // stringPool, which the semester read keeps using, unless it is null
+    public JsonStreamReader(String source, StringPool stringPool) {
+        this.source = source;
+        this.stringPool = stringPool;
+    }
+
+    // EFFECTS: reads Semester from file, applies any modifications logged in its journal and returns it
+    // marked clean;
+    // throws IOException if an error occurs reading data from file
+    public Semester read() throws IOException {
+        Semester semester = readWithoutJournal();
+        SemesterJournal.replay(source, semester);
+        semester.markClean();
+        return semester;
+    }
+
+    // EFFECTS: reads Semester from file as it is stored, without applying its journal;
+    // throws IOException if an error occurs reading data from file
+    Semester readWithoutJournal() throws IOException {
+        try (JsonTokenizer tokenizer = new JsonTokenizer(openReader())) {
+            Semester semester = (Semester) readMaterial(tokenizer, SEMESTER);
+            semester.setStringPool(stringPool);
+            return semester;
+        }
+    }
+
+    // EFFECTS: opens a decoding reader over a channel to the source file, decompressing it if it is compressed
+    private Reader openReader() throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        if (JsonFormat.isCompressed(source)) {
+            try {
+                InputStream in = JsonFormat.decompress(Channels.newInputStream(channel));
+                return new InputStreamReader(in, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1);
+    }
+
+    // MODIFIES: tokenizer
+    // EFFECTS: reads a StudyMaterial object at depth of the semester hierarchy (0 is Semester, 3 is Card)
+    private StudyMaterial readMaterial(JsonTokenizer tokenizer, int depth) throws IOException {
+        MaterialFields fields = new MaterialFields();
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            readField(tokenizer, fields, depth);
+        }
+        tokenizer.endObject();
+        return buildMaterial(fields, depth);
+    }
+
+    // MODIFIES: tokenizer, fields
+    // EFFECTS: reads the next member of a StudyMaterial object into fields, skipping unknown members
+    private void readField(JsonTokenizer tokenizer, MaterialFields fields, int depth) throws IOException {
+        String key = tokenizer.nextName();
+        if (key.equals(JsonFormat.VERSION_KEY) && depth == SEMESTER) {
+            JsonFormat.checkVersion(tokenizer.nextInt());
+        } else if (key.equals("name")) {
+            fields.name = tokenizer.nextString();
+        } else if (key.equals("confidence")) {
+            fields.confidence = Confidence.valueOf(tokenizer.nextString());
+        } else if (key.equals("answer")) {
+            fields.answer = tokenizer.nextString();
+        } else if (key.equals("studyDates")) {
+            fields.studyDates = readStudyDates(tokenizer);
+        } else if (key.equals("materialMap") && depth < CARD) {
+            tokenizer.beginArray();
+            while (tokenizer.hasNext()) {
+                fields.materials.add(readMaterial(tokenizer, depth + 1));
+            }
+            tokenizer.endArray();
+        } else {
+            tokenizer.skipValue();
+        }
+    }
+
+    // MODIFIES: tokenizer
+    // EFFECTS: reads an array of dates stored as epoch day deltas or as year, month and day objects (see JsonFormat)
+    // and returns them as epoch days, oldest first
+    private int[] readStudyDates(JsonTokenizer tokenizer) throws IOException {
+        int[] studyDates = new int[4];
+        int count = 0;
+        long epochDay = 0;
+        tokenizer.beginArray();
+        while (tokenizer.hasNext()) {
+            if (count == studyDates.length) {
+                studyDates = Arrays.copyOf(studyDates, count * 2);
+            }
+            if (tokenizer.peek() == JsonTokenizer.Token.NUMBER) {
+                epochDay += tokenizer.nextInt();
+                studyDates[count++] = (int) epochDay;
+            } else {
+                studyDates[count++] = (int) readLegacyDate(tokenizer).toEpochDay();
+            }
+        }
+        tokenizer.endArray();
+        int[] oldestFirst = new int[count];
+        for (int i = 0; i < count; i++) {
+            oldestFirst[i] = studyDates[count - 1 - i];
+        }
+        return oldestFirst;
+    }
+
+    // MODIFIES: tokenizer
+    // EFFECTS: reads a date stored as a year, month and day object
+    private LocalDate readLegacyDate(JsonTokenizer tokenizer) throws IOException {
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        tokenizer.beginObject();
+        while (tokenizer.hasNext()) {
+            String key = tokenizer.nextName();
+            if (key.equals("year")) {
+                year = tokenizer.nextInt();
+            } else if (key.equals("month")) {
+                month = tokenizer.nextInt();
+            } else if (key.equals("day")) {
+                day = tokenizer.nextInt();
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        tokenizer.endObject();
+        return LocalDate.of(year, month, day);
+    }
+
+    // EFFECTS: makes the StudyMaterial type found at depth from fields and adds its already built sub-materials,
+    // merging those that share a name. Throws JSONException if a required field is missing
+    @SuppressWarnings("unchecked")
+    private StudyMaterial buildMaterial(MaterialFields fields, int depth) {
+        String name = require(fields.name, "name");
+        StudyMaterial material;
+        if (depth == SEMESTER) {
+            material = new Semester(name);
+        } else if (depth == COURSE) {
+            material = new Course(name, require(fields.confidence, "confidence"));
+        } else if (depth == TOPIC) {
+            material = new Topic(name, require(fields.confidence, "confidence"));
+        } else {
+            material = new Card(pooled(name), pooled(require(fields.answer, "answer")),
+                    require(fields.confidence, "confidence"));
+        }
+        material.setStudyEpochDays(require(fields.studyDates, "studyDates"));
+
+        if (material instanceof StudyCollection<?>) {
+            for (StudyMaterial sub : fields.materials) {
+                addOrMerge((StudyCollection<StudyMaterial>) material, sub);
+            }
+        }
+        return material;
+    }
+
+    // MODIFIES: sc, material
+    // EFFECTS: adds material to sc. If sc already has a material with its name, prints the duplicate and, as
+    // JsonReader does, that material takes the study dates and answer of material and the sub-materials of material
+    // are taken out of it and merged into it
+    @SuppressWarnings("unchecked")
+    private void addOrMerge(StudyCollection<StudyMaterial> sc, StudyMaterial material) {
+        StudyMaterial existing = sc.get(material.getName());
+        if (existing == null) {
+            sc.addAll(Collections.singletonList(material));
+            return;
+        }
+        System.out.printf("%s %s already contains %s%n", sc.getClass().getSimpleName(), sc, material.getName());
+        existing.setStudyDates(material.getStudyDates());
+        if (existing instanceof Card) {
+            ((Card) existing).setAnswer(((Card) material).getAnswer());
+            return;
+        }
+        StudyCollection<StudyMaterial> duplicate = (StudyCollection<StudyMaterial>) material;
+        for (StudyMaterial sub : new ArrayList<>(duplicate.getAll().values())) {
+            try {
+                addOrMerge((StudyCollection<StudyMaterial>) existing, duplicate.remove(sub));
+            } catch (NoElementException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // EFFECTS: returns the copy of text in stringPool, or text if there is no pool
+    private String pooled(String text) {
+        return stringPool == null ? text : stringPool.intern(text);
+    }
+
+    // EFFECTS: returns value, throws JSONException naming key if value is missing
+    private <T> T require(T value, String key) {
+        if (value == null) {
+            throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,175 @@
+package persistence;
+
+import model.Card;
+import model.Semester;
+import model.StudyCollection;
+import model.StudyMaterial;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.Deflater;
+
+// Represents a writer that streams the JSON representation of a Semester to file while walking the hierarchy,
+// without building JSONObjects or holding the serialized file in memory. Output is the current version of JsonFormat
+// and readable by JsonReader. Destination files ending in JsonFormat.COMPRESSED_EXTENSION are gzip-compressed as
+// they are written.
+public class JsonStreamWriter {
+    private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String destination;
+    private final OutputStream stream;
+    private final boolean compact;
+    private final int compressionLevel;
+    private Writer writer;
+
+    // EFFECTS: constructs writer to write indented JSON to destination file
+    public JsonStreamWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, without any whitespace if compact
+    public JsonStreamWriter(String destination, boolean compact) {
+        this(destination, compact, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, without any whitespace if compact, compressing it at
+    // compressionLevel (see Deflater) if destination is compressed. Throws IllegalArgumentException if
+    // compressionLevel is not a Deflater level
+    public JsonStreamWriter(String destination, boolean compact, int compressionLevel) {
+        JsonFormat.checkCompressionLevel(compressionLevel);
+        this.destination = destination;
+        this.stream = null;
+        this.compact = compact;
+        this.compressionLevel = compressionLevel;
+    }
+
+    // EFFECTS: constructs writer to write to stream, which is closed along with the writer, without any whitespace
+    // if compact
+    public JsonStreamWriter(OutputStream stream, boolean compact) {
+        this.destination = null;
+        this.stream = stream;
+        this.compact = compact;
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // be opened for writing, IOException if an error occurs writing the compression header
+    public void open() throws IOException {
+        OutputStream out = stream != null ? stream : new FileOutputStream(destination);
+        if (destination != null && JsonFormat.isCompressed(destination)) {
+            out = JsonFormat.compress(out, compressionLevel);
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of semester to file;
+    // throws IOException if an error occurs writing to file
+    public void write(Semester semester) throws IOException {
+        writeCollection(semester);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of sc to file as a whole document, as ShardedJsonWriter does for the Course
+    // or Topic of a shard; throws IOException if an error occurs writing to file
+    void writeCollection(StudyCollection<?> sc) throws IOException {
+        writeMaterial(sc, 0);
+        writer.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes sm as a JSON object indented at depth, recursing into its sub-materials
+    private void writeMaterial(StudyMaterial sm, int depth) throws IOException {
+        writer.write('{');
+        if (depth == 0) {
+            writeKey(JsonFormat.VERSION_KEY, depth + 1, true);
+            writer.write(Integer.toString(JsonFormat.VERSION));
+        }
+        writeKey("name", depth + 1, depth != 0);
+        JSONObject.quote(sm.getName(), writer);
+        writeKey("confidence", depth + 1, false);
+        JSONObject.quote(sm.getConfidence().toString(), writer);
+        writeKey("studyDates", depth + 1, false);
+        writeStudyDates(sm);
+
+        if (sm instanceof Card) {
+            writeKey("answer", depth + 1, false);
+            JSONObject.quote(((Card) sm).getAnswer(), writer);
+        } else {
+            writeKey("materialMap", depth + 1, false);
+            writeMaterials((StudyCollection<?>) sm, depth + 1);
+        }
+
+        newLine(depth);
+        writer.write('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the sub-materials of sc as a JSON array indented at depth
+    private void writeMaterials(StudyCollection<?> sc, int depth) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (StudyMaterial sm : sc.getAll().values()) {
+            if (!first) {
+                writer.write(',');
+            }
+            newLine(depth + 1);
+            writeMaterial(sm, depth + 1);
+            first = false;
+        }
+        if (!first) {
+            newLine(depth);
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the study dates of sm as a JSON array of epoch day deltas on one line (see JsonFormat)
+    private void writeStudyDates(StudyMaterial sm) throws IOException {
+        writer.write('[');
+        long previous = 0;
+        boolean first = true;
+        for (LocalDate date : sm.getStudyDates()) {
+            if (!first) {
+                writer.write(compact ? "," : ", ");
+            }
+            long epochDay = date.toEpochDay();
+            writer.write(Long.toString(epochDay - previous));
+            previous = epochDay;
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an object member name at depth, preceded by a comma unless it is the first member
+    private void writeKey(String key, int depth, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        newLine(depth);
+        JSONObject.quote(key, writer);
+        writer.write(compact ? ":" : ": ");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new line indented to depth, unless compact
+    private void newLine(int depth) throws IOException {
+        if (!compact) {
+            writer.write('\n');
+            for (int i = 0; i < depth * TAB; i++) {
+                writer.write(' ');
+            }
+        }
+    }
+}
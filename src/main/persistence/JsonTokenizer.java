@@ -0,0 +1,269 @@
+package persistence;
+
+import org.json.JSONException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// A pull tokenizer that reads JSON values one token at a time from a character stream without building a DOM.
+// Commas and colons are consumed implicitly by hasNext and nextName.
+public class JsonTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // the kinds of value that can start at the current position
+    public enum Token {
+        BEGIN_OBJECT,
+        BEGIN_ARRAY,
+        STRING,
+        NUMBER,
+        LITERAL
+    }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder text;
+    private int position;
+    private int limit;
+
+    // EFFECTS: constructs tokenizer reading characters from reader
+    public JsonTokenizer(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.text = new StringBuilder();
+    }
+
+    // EFFECTS: returns the kind of the next value without consuming it
+    public Token peek() throws IOException {
+        int c = peekChar();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                return Token.LITERAL;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening brace of an object
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the closing brace of an object
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening bracket of an array
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the closing bracket of an array
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a separating comma if present and returns true if another element or member follows
+    public boolean hasNext() throws IOException {
+        int c = peekChar();
+        if (c == ',') {
+            position++;
+            c = peekChar();
+        }
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an object member name and the following colon and returns the name
+    public String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a string value and returns it with escapes resolved
+    public String nextString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an integer value and returns it
+    public int nextInt() throws IOException {
+        int c = peekChar();
+        boolean negative = c == '-';
+        if (negative) {
+            position++;
+        }
+        int value = 0;
+        int digits = 0;
+        while ((c = peekRaw()) >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            position++;
+            digits++;
+        }
+        if (digits == 0) {
+            throw syntaxError("Expected integer");
+        }
+        return negative ? -value : value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and discards the next value, including any nested values
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case STRING:
+                nextString();
+                break;
+            default:
+                skipBareWord();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the underlying reader
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a number or literal (true, false, null)
+    private void skipBareWord() throws IOException {
+        int c;
+        while ((c = peekRaw()) != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            position++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the character following a backslash and returns the character it represents
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return readUnicodeEscape();
+            case -1:
+                throw syntaxError("Unterminated escape");
+            default:
+                return (char) c;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes four hex digits and returns the character they encode
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and consumes c, throws JSONException if the next character is not c
+    private void expect(char c) throws IOException {
+        if (peekChar() != c) {
+            throw syntaxError("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it, -1 at end of stream
+    private int peekChar() throws IOException {
+        int c;
+        while ((c = peekRaw()) != -1 && Character.isWhitespace(c)) {
+            position++;
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, -1 at end of stream
+    private int peekRaw() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, -1 at end of stream
+    private int read() throws IOException {
+        int c = peekRaw();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills buffer from reader, returns false if the stream is exhausted
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    // EFFECTS: returns exception describing a syntax error at the current token
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " in JSON stream");
+    }
+}
@@ -31,6 +31,7 @@ public class JsonWriter {
     // EFFECTS: writes JSON representation of workroom to file
     public void write(Semester semester) {
         JSONObject json = semester.toJson();
+        json.put(JsonFormat.VERSION_KEY, JsonFormat.VERSION);
         saveToFile(json.toString(TAB));
     }
 
@@ -0,0 +1,116 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// Represents a reader that opens a binary semester file (see BinaryFormat) by memory-mapping it. The hierarchy,
+// names and confidences are read immediately, while card answers stay in the mapped file until they are first
+// accessed. Topics keep their cards in CardColumns.
+public class MappedSemesterReader {
+    private static final int TOPIC_DEPTH = 2;
+    private static final int CARD_DEPTH = 3;
+
+    private final String source;
+    private final StringPool stringPool;
+    private int version;
+
+    // EFFECTS: constructs reader to read from source file
+    public MappedSemesterReader(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file, sharing repeated names and questions through stringPool,
+    // which the semester read keeps using so answers are shared as they are loaded, unless it is null
+    public MappedSemesterReader(String source, StringPool stringPool) {
+        this.source = source;
+        this.stringPool = stringPool;
+    }
+
+    // EFFECTS: maps source file and returns its Semester with lazily loaded cards, after applying any
+    // modifications logged in its journal and marking it clean;
+    // throws IOException if an error occurs reading data from file or the file is not a supported binary semester
+    public Semester read() throws IOException {
+        Semester semester = read(map(source));
+        SemesterJournal.replay(source, semester);
+        semester.markClean();
+        return semester;
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: reads the header and Semester at the position of buffer, which maps source, without applying the
+    // journal of source. Cards keep reading from buffer when first accessed;
+    // throws IOException if buffer does not hold a supported binary semester
+    Semester read(ByteBuffer buffer) throws IOException {
+        try {
+            byte[] magic = new byte[BinaryFormat.MAGIC.length];
+            buffer.get(magic);
+            version = buffer.get() & 0xFF;
+            BinaryFormat.checkHeader(magic, version, source);
+            Semester semester = (Semester) readMaterial(BinaryFormat.input(buffer, stringPool), 0);
+            semester.setStringPool(stringPool);
+            return semester;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt binary semester file " + source, e);
+        }
+    }
+
+    // EFFECTS: returns a read-only mapping of the whole source file. The mapping stays valid after the channel
+    // is closed
+    static MappedByteBuffer map(String source) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary semester file is too large to map: " + source);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the StudyMaterial node at depth of the semester hierarchy (0 is Semester, 3 is Card)
+    @SuppressWarnings("unchecked")
+    private StudyMaterial readMaterial(BinaryFormat.Input in, int depth) throws IOException {
+        String name = in.readString();
+        Confidence confidence = BinaryFormat.readConfidence(in, source);
+        if (depth == CARD_DEPTH) {
+            return readCard(in, name, confidence);
+        }
+
+        int[] studyDates = BinaryFormat.readStudyDates(in);
+        if (depth == TOPIC_DEPTH && version != BinaryFormat.LEGACY_VERSION) {
+            Topic topic = new Topic(name, confidence, BinaryFormat.readColumns(in, source));
+            topic.setStudyEpochDays(studyDates);
+            return topic;
+        }
+
+        StudyCollection<StudyMaterial> sc =
+                (StudyCollection<StudyMaterial>) BinaryFormat.makeCollection(name, confidence, depth);
+        sc.setStudyEpochDays(studyDates);
+        int size = BinaryFormat.checkLength(in.readVarInt());
+        List<StudyMaterial> materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            materials.add(readMaterial(in, depth + 1));
+        }
+        sc.addAll(materials);
+        return sc;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a card whose answer is decoded from the mapped file only when first accessed
+    private Card readCard(BinaryFormat.Input in, String question, Confidence confidence) throws IOException {
+        int[] studyDates = BinaryFormat.readStudyDates(in);
+        IntFunction<String> answer = in.readStrings(1);
+
+        Card card = new Card(question, confidence, () -> answer.apply(0));
+        card.setStudyEpochDays(studyDates);
+        return card;
+    }
+}
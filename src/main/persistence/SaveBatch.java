@@ -0,0 +1,150 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The file operations of one save captured by SemesterStore.prepareSave, in the order they must be applied.
+// Preparing a batch reads the Semester while committing it only touches the disk, so a batch can be committed on
+// another thread while the Semester keeps changing. Replaced files are written to a temporary file, forced to disk
+// and atomically renamed over the old file, so a crash never leaves a half-written file behind. Contents given as a
+// stream are written to their temporary file while the batch is prepared, so they are captured without being held in
+// memory, and only forced to disk and renamed when it is committed. Each temporary file has its own name, so batches
+// prepared before earlier ones are committed never write over each other's files.
+public class SaveBatch {
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final AtomicLong TEMP_FILES = new AtomicLong();
+
+    private final List<FileOperation> operations;
+    private final List<Path> tempFiles;
+
+    // a step of a batch that modifies files
+    interface FileOperation {
+        void apply() throws IOException;
+    }
+
+    // writes the new contents of a file
+    interface Contents {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // EFFECTS: makes an empty batch
+    SaveBatch() {
+        this.operations = new ArrayList<>();
+        this.tempFiles = new ArrayList<>();
+    }
+
+    // EFFECTS: returns true if committing this does nothing
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds operation to the end of this
+    void add(FileOperation operation) {
+        operations.add(operation);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes contents now to a new temporary file next to file and adds forcing it to disk and renaming it
+    // over file; throws IOException if an error occurs writing the temporary file, after deleting it
+    void replace(Path file, Contents contents) throws IOException {
+        Path temp = writeTemp(file, contents);
+        tempFiles.add(temp);
+        add(() -> moveIntoPlace(temp, file));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds deleting file if it exists
+    void delete(Path file) {
+        add(() -> Files.deleteIfExists(file));
+    }
+
+    // EFFECTS: applies the operations of this in order, stopping at the first that fails, and deletes the temporary
+    // files of the replacements not applied; throws IOException if an error occurs writing
+    public void commit() throws IOException {
+        try {
+            for (FileOperation operation : operations) {
+                operation.apply();
+            }
+        } finally {
+            discard();
+        }
+    }
+
+    // EFFECTS: deletes the temporary files written for this that have not been renamed into place, for a batch that
+    // will not be committed
+    public void discard() {
+        for (Path temp : tempFiles) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // a leftover temporary file is never read
+            }
+        }
+    }
+
+    // EFFECTS: writes contents to a temporary file next to file, forces it to disk and renames it over file, so that
+    // file always holds either its old or its new contents
+    static void replaceAtomically(Path file, byte[] contents) throws IOException {
+        replaceAtomically(file, out -> out.write(contents));
+    }
+
+    // EFFECTS: streams contents to a temporary file next to file, forces it to disk and renames it over file, so that
+    // file always holds either its old or its new contents
+    static void replaceAtomically(Path file, Contents contents) throws IOException {
+        Path temp = writeTemp(file, contents);
+        try {
+            moveIntoPlace(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // EFFECTS: returns a new temporary file next to file holding contents, creating the directory of file if missing;
+    // throws IOException if an error occurs writing it, after deleting it
+    private static Path writeTemp(Path file, Contents contents) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(file.getFileName() + "." + TEMP_FILES.incrementAndGet() + TEMP_EXTENSION);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+            contents.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    // EFFECTS: forces temp to disk and renames it over file
+    private static void moveIntoPlace(Path temp, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(file.toAbsolutePath().getParent());
+    }
+
+    // EFFECTS: forces the entry of a renamed file in directory to disk, where the platform allows opening directories
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened on every platform; the rename itself is still atomic
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package persistence;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// A file in a semester directory holding a SemesterSummary for each semester, so that semesters can be listed with
+// their sizes without reading them. A summary is only current while the files of its semester are unmodified since
+// the time it records. Summaries are recorded by saves on the autosave writer thread and read by the model thread,
+// so every method is synchronized.
+class SemesterCatalog {
+    static final String FILE = "semesters.catalog";
+    private static final int TAB = 4;
+
+    private final Path file;
+    private Map<String, SemesterSummary> summaries;
+    private boolean changed;
+
+    // EFFECTS: makes catalog stored in file, which is only read when first needed
+    SemesterCatalog(Path file) {
+        this.file = file;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the summary of semester called name if it was recorded when its files were last modified at
+    // modified, otherwise null
+    synchronized SemesterSummary get(String name, long modified) {
+        SemesterSummary summary = summaries().get(name);
+        if (summary == null || summary.getModified() != modified) {
+            return null;
+        }
+        return summary;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records summary, replacing any summary of a semester with the same name
+    synchronized void put(SemesterSummary summary) {
+        summaries().put(summary.getName(), summary);
+        changed = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the summary of semester called name
+    synchronized void remove(String name) {
+        changed |= summaries().remove(name) != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the summaries of semesters not named in names
+    synchronized void retainAll(Collection<String> names) {
+        changed |= summaries().keySet().retainAll(names);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the catalog to file if it changed since it was read or last written;
+    // throws IOException if an error occurs writing
+    synchronized void write() throws IOException {
+        if (!changed) {
+            return;
+        }
+        JSONArray jsonSummaries = new JSONArray();
+        for (SemesterSummary summary : summaries.values()) {
+            jsonSummaries.put(summary.toJson());
+        }
+        JSONObject json = new JSONObject().put("semesters", jsonSummaries);
+        SaveBatch.replaceAtomically(file, json.toString(TAB).getBytes(StandardCharsets.UTF_8));
+        changed = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the recorded summaries, reading them from file the first time. A missing or unreadable file
+    // is treated as empty, so that its summaries are rebuilt
+    private Map<String, SemesterSummary> summaries() {
+        if (summaries == null) {
+            summaries = new HashMap<>();
+            try {
+                String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                JSONArray jsonSummaries = new JSONObject(text).getJSONArray("semesters");
+                for (int i = 0; i < jsonSummaries.length(); i++) {
+                    SemesterSummary summary = SemesterSummary.fromJson(jsonSummaries.getJSONObject(i));
+                    summaries.put(summary.getName(), summary);
+                }
+            } catch (NoSuchFileException e) {
+                // nothing recorded yet
+            } catch (IOException | JSONException | IllegalArgumentException e) {
+                summaries.clear();
+                changed = true;
+            }
+        }
+        return summaries;
+    }
+}
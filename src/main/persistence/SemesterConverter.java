@@ -0,0 +1,55 @@
+package persistence;
+
+import model.Semester;
+
+import java.io.IOException;
+
+// Converts semester files between the JSON, compressed JSON and binary formats
+public class SemesterConverter {
+    private SemesterConverter() {
+    }
+
+    // EFFECTS: reads the JSON semester at jsonSource and writes it in binary format to binaryDestination;
+    // throws IOException if either file cannot be read or written
+    public static Semester jsonToBinary(String jsonSource, String binaryDestination) throws IOException {
+        Semester semester = new JsonStreamReader(jsonSource).read();
+        BinaryWriter writer = new BinaryWriter(binaryDestination);
+        writer.open();
+        try {
+            writer.write(semester);
+        } finally {
+            writer.close();
+        }
+        return semester;
+    }
+
+    // EFFECTS: reads the binary semester at binarySource and writes it as indented JSON to jsonDestination;
+    // throws IOException if either file cannot be read or written
+    public static Semester binaryToJson(String binarySource, String jsonDestination) throws IOException {
+        Semester semester = new BinaryReader(binarySource).read();
+        JsonStreamWriter writer = new JsonStreamWriter(jsonDestination);
+        writer.open();
+        try {
+            writer.write(semester);
+        } finally {
+            writer.close();
+        }
+        return semester;
+    }
+
+    // EFFECTS: reads the JSON semester at jsonSource and writes it as compact JSON to compressedDestination,
+    // gzip-compressed at level (see Deflater). Throws IllegalArgumentException if level is not a Deflater level;
+    // throws IOException if either file cannot be read or written
+    public static Semester compressJson(String jsonSource, String compressedDestination, int level)
+            throws IOException {
+        Semester semester = new JsonStreamReader(jsonSource).read();
+        JsonStreamWriter writer = new JsonStreamWriter(compressedDestination, true, level);
+        writer.open();
+        try {
+            writer.write(semester);
+        } finally {
+            writer.close();
+        }
+        return semester;
+    }
+}
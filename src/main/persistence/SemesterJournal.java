@@ -0,0 +1,282 @@
+package persistence;
+
+import exceptions.ModifyException;
+import model.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+// An append-only log of the modifications made to a Semester since its snapshot file was last written.
+// Each line is one JSON entry. The first line identifies the snapshot the log applies to by its size and
+// modification time, so a log left behind by an interrupted compaction is never replayed onto a newer snapshot.
+// Entries are collected while attached to a Semester and only appended to the file by flush.
+public class SemesterJournal implements StudyListener {
+    public static final String EXTENSION = ".journal";
+
+    private final String snapshotPath;
+    private final Path path;
+    private final List<String> pending;
+    private int entriesOnDisk;
+
+    // EFFECTS: constructs journal for the snapshot file at snapshotPath, continuing the existing journal file if
+    // it belongs to the current snapshot and deleting it otherwise
+    public SemesterJournal(String snapshotPath) throws IOException {
+        this(snapshotPath, Paths.get(snapshotPath + EXTENSION));
+        if (Files.exists(path) && isCurrent(path, snapshotPath)) {
+            entriesOnDisk = trimEntries();
+        }
+        if (entriesOnDisk == 0) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // EFFECTS: constructs empty journal at path for the snapshot file at snapshotPath
+    private SemesterJournal(String snapshotPath, Path path) {
+        this.snapshotPath = snapshotPath;
+        this.path = path;
+        this.pending = new ArrayList<>();
+    }
+
+    // EFFECTS: returns empty journal for the snapshot file at snapshotPath without touching the disk, for a snapshot
+    // that is being rewritten along with the deletion of its old journal file
+    static SemesterJournal startFresh(String snapshotPath) {
+        return new SemesterJournal(snapshotPath, Paths.get(snapshotPath + EXTENSION));
+    }
+
+    // EFFECTS: returns the snapshot file path this journal applies to
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    // EFFECTS: returns number of entries logged, whether or not they have been flushed
+    public int size() {
+        return entriesOnDisk + pending.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends all pending entries to the journal file, preceded by the snapshot marker if the file is new;
+    // throws IOException if an error occurs writing the file
+    public void flush() throws IOException {
+        drain().apply();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the pending entries and returns the operation that appends them to the journal file and forces
+    // them to disk. The snapshot marker is written first if the file does not exist when the operation is applied
+    SaveBatch.FileOperation drain() {
+        List<String> entries = new ArrayList<>(pending);
+        entriesOnDisk += entries.size();
+        pending.clear();
+        return () -> append(entries);
+    }
+
+    // EFFECTS: appends entries to the journal file, creating it with the snapshot marker first if it is missing
+    private void append(List<String> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(path)) {
+            lines.append(snapshotMarker()).append('\n');
+        }
+        for (String entry : entries) {
+            lines.append(entry).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards all logged entries and deletes the journal file, for use once they are in the snapshot
+    public void clear() throws IOException {
+        Files.deleteIfExists(path);
+        pending.clear();
+        entriesOnDisk = 0;
+    }
+
+    // MODIFIES: semester
+    // EFFECTS: applies the entries in the journal of the snapshot file at snapshotPath to semester, which must have
+    // just been read from that file. Does nothing if there is no journal or it belongs to an older snapshot.
+    // Stops at an incomplete last entry. Returns number of entries applied
+    public static int replay(String snapshotPath, Semester semester) throws IOException {
+        Path path = Paths.get(snapshotPath + EXTENSION);
+        if (!Files.exists(path) || !isCurrent(path, snapshotPath)) {
+            return 0;
+        }
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            reader.readLine(); // snapshot marker
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    apply(new JSONObject(line), semester);
+                } catch (JSONException e) {
+                    break;
+                }
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+        log(entry("add", parent).put("material", material.toJson()));
+    }
+
+    @Override
+    public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+        log(entry("remove", parent).put("name", material.getName()));
+    }
+
+    @Override
+    public void nameEdited(StudyMaterial material, String oldName) {
+        if (material.getParent() != null) {
+            log(entry("editName", material.getParent()).put("name", oldName).put("newName", material.getName()));
+        }
+    }
+
+    @Override
+    public void answerEdited(Card card) {
+        if (card.getParent() != null) {
+            log(entry("editCardAnswer", card.getParent())
+                    .put("question", card.getQuestion())
+                    .put("answer", card.getAnswer()));
+        }
+    }
+
+    @Override
+    public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+        log(entry("trackStudy", material).put("date", date.toString()).put("confidence", confidence.toString()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds entry to the pending entries
+    private void log(JSONObject entry) {
+        pending.add(entry.toString());
+    }
+
+    // EFFECTS: returns entry for operation on target, which is identified by the names on its path from the
+    // Semester
+    private static JSONObject entry(String operation, StudyMaterial target) {
+        LinkedList<String> names = new LinkedList<>();
+        for (StudyMaterial sm = target; sm.getParent() != null; sm = sm.getParent()) {
+            names.addFirst(sm.getName());
+        }
+        return new JSONObject().put("op", operation).put("path", new JSONArray(names));
+    }
+
+    // MODIFIES: semester
+    // EFFECTS: applies the modification in entry to semester, ignoring it if its target no longer exists
+    private static void apply(JSONObject entry, Semester semester) {
+        StudyMaterial target = resolve(semester, entry.getJSONArray("path"));
+        if (target == null) {
+            return;
+        }
+        String operation = entry.getString("op");
+        if (operation.equals("trackStudy")) {
+            target.trackStudy(LocalDate.parse(entry.getString("date")),
+                    Confidence.valueOf(entry.getString("confidence")));
+        } else if (operation.equals("add")) {
+            new JsonReader(null).addStudyMaterial((StudyCollection<?>) target, entry.getJSONObject("material"));
+        } else if (operation.equals("editCardAnswer")) {
+            Topic topic = (Topic) target;
+            if (topic.contains(entry.getString("question"))) {
+                topic.editCardAnswer(entry.getString("question"), entry.getString("answer"));
+            }
+        } else {
+            applyModify(entry, (StudyCollection<?>) target);
+        }
+    }
+
+    // MODIFIES: sc
+    // EFFECTS: applies a remove or editName entry to sc, ignoring it if it is no longer valid
+    private static void applyModify(JSONObject entry, StudyCollection<?> sc) {
+        try {
+            if (entry.getString("op").equals("remove")) {
+                sc.remove(entry.getString("name"));
+            } else {
+                sc.editName(entry.getString("name"), entry.getString("newName"));
+            }
+        } catch (ModifyException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns the material found by following the names in path from semester, null if it is missing
+    private static StudyMaterial resolve(Semester semester, JSONArray path) {
+        StudyMaterial sm = semester;
+        for (int i = 0; i < path.length() && sm != null; i++) {
+            if (!(sm instanceof StudyCollection<?>)) {
+                return null;
+            }
+            sm = ((StudyCollection<?>) sm).get(path.getString(i));
+        }
+        return sm;
+    }
+
+    // EFFECTS: returns the first line of a journal, identifying the current snapshot file
+    private JSONObject snapshotMarker() throws IOException {
+        Path snapshot = Paths.get(snapshotPath);
+        return new JSONObject()
+                .put("op", "snapshot")
+                .put("size", Files.size(snapshot))
+                .put("modified", Files.getLastModifiedTime(snapshot).toMillis());
+    }
+
+    // EFFECTS: returns true if the first line of the journal at path identifies the snapshot file at snapshotPath
+    // as it is now
+    private static boolean isCurrent(Path path, String snapshotPath) throws IOException {
+        Path snapshot = Paths.get(snapshotPath);
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            JSONObject marker = new JSONObject(line == null ? "{}" : line);
+            return marker.optString("op").equals("snapshot")
+                    && marker.optLong("size") == Files.size(snapshot)
+                    && marker.optLong("modified") == Files.getLastModifiedTime(snapshot).toMillis();
+        } catch (JSONException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: truncates an incomplete last entry left by an interrupted flush and returns the number of complete
+    // entries in the journal file, excluding the snapshot marker
+    private int trimEntries() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int lines = 0;
+        int end = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+                end = i + 1;
+            }
+        }
+        if (end < bytes.length) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        return Math.max(lines - 1, 0);
+    }
+}
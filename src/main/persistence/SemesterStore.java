@@ -0,0 +1,393 @@
+package persistence;
+
+import model.Semester;
+import model.StringPool;
+import model.StudyCollection;
+import model.StudyMaterial;
+import model.Topic;
+import org.json.JSONException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+
+// Locates, loads and saves the semesters kept in a directory. A semester named X is stored in X.fmb if that binary
+// file exists, otherwise in the gzip-compressed X.json.gz if that exists, otherwise in X.json. Binary semesters are
+// memory-mapped so their cards load lazily, and compressed ones are saved at the store's compression level. JSON
+// semesters are loaded through a SnapshotCache, so one that is unchanged since it was last loaded is not parsed again.
+// Modifications to a loaded or saved semester are logged by a SemesterJournal, and a save only appends them to the
+// journal file. Once the journal grows past COMPACTION_THRESHOLD entries the next save writes a fresh snapshot
+// instead. Every save is prepared as a SaveBatch, which writes whole files to a temporary file, forces it to disk
+// and atomically renames it over the old one, so a crash never leaves a half-written file and a mapped semester can
+// be saved over its own file. A snapshot is streamed into its temporary file while the save is prepared, by the thread
+// allowed to read the semester, so it is never held in memory whole and the batch only has to force and rename it.
+// A semester saved with saveSharded is kept in a directory X instead (see ShardedJsonWriter); its courses are read on
+// demand and each save only rewrites the shards that changed, so it is not journaled. Imports through importCards are
+// not journaled either, and end with one full save. Every save also records a SemesterSummary of the semester in the
+// directory's SemesterCatalog, which listSummaries reads instead of the semesters themselves. With string pooling on,
+// each semester loaded gets its own StringPool, through which the questions and answers of its cards are read, set
+// and loaded, so repeated text is held once. A pool keeps every string it was given, including answers since
+// replaced, for as long as its semester is kept.
+public class SemesterStore {
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".fmb";
+    public static final String COMPRESSED_EXTENSION = JSON_EXTENSION + JsonFormat.COMPRESSED_EXTENSION;
+    public static final int COMPACTION_THRESHOLD = 1000;
+
+    private final String directory;
+    private final Map<Semester, SemesterJournal> journals;
+    private final Map<Semester, ShardIndex> shardIndexes;
+    private final SemesterCatalog catalog;
+    private int compressionLevel;
+    private boolean stringPooling;
+
+    // EFFECTS: constructs store for semester files in directory
+    public SemesterStore(String directory) {
+        this.directory = directory;
+        this.journals = new IdentityHashMap<>();
+        this.shardIndexes = new IdentityHashMap<>();
+        this.catalog = new SemesterCatalog(Paths.get(directory, SemesterCatalog.FILE));
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the Deflater level compressed semesters are saved at from now on. Throws IllegalArgumentException
+    // if level is not a Deflater level
+    public void setCompressionLevel(int level) {
+        JsonFormat.checkCompressionLevel(level);
+        compressionLevel = level;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives each semester loaded from now on its own StringPool if enabled, or none otherwise. Semesters
+    // already loaded keep the pool they have
+    public void setStringPooling(boolean enabled) {
+        stringPooling = enabled;
+    }
+
+    // EFFECTS: returns a new pool for a semester if string pooling is on, null otherwise
+    public StringPool newStringPool() {
+        return stringPooling ? new StringPool() : null;
+    }
+
+    // EFFECTS: returns the path of the file that semester called name is loaded from and saved to
+    public String pathOf(String name) {
+        File manifest = new File(directory + name, ShardedJsonWriter.MANIFEST);
+        if (manifest.exists()) {
+            return manifest.getPath();
+        }
+        String binaryPath = directory + name + BINARY_EXTENSION;
+        if (new File(binaryPath).exists()) {
+            return binaryPath;
+        }
+        String compressedPath = directory + name + COMPRESSED_EXTENSION;
+        if (new File(compressedPath).exists()) {
+            return compressedPath;
+        }
+        return directory + name + JSON_EXTENSION;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the semester called name, including its journal, starts journaling it and returns it. Only the
+    // manifest of a sharded semester is read;
+    // throws IOException if it does not exist or an error occurs reading it
+    public Semester load(String name) throws IOException {
+        String path = pathOf(name);
+        StringPool stringPool = newStringPool();
+        Semester semester;
+        if (path.endsWith(ShardedJsonWriter.MANIFEST)) {
+            JsonReader reader = new JsonReader(path, false, stringPool);
+            semester = reader.read();
+            shardIndexes.put(semester, reader.getShardIndex());
+            return semester;
+        } else if (path.endsWith(BINARY_EXTENSION)) {
+            semester = new MappedSemesterReader(path, stringPool).read();
+        } else {
+            semester = new SnapshotCache(path, stringPool).read();
+        }
+        attachJournal(semester, new SemesterJournal(path));
+        return semester;
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: does nothing if semester is clean (see StudyMaterial.isDirty). Otherwise appends the modifications
+    // made to semester since the last save to its journal, or writes a snapshot instead if semester has no journal
+    // yet, was renamed or its journal is due for compaction. Sharded semesters are saved with saveSharded. Marks
+    // semester clean once saved; throws IOException if an error occurs writing, after which the next save rewrites
+    // semester in full
+    public void save(Semester semester) throws IOException {
+        commit(semester, prepareSave(semester));
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: returns the batch of file operations that save(semester) performs and marks semester clean, writing
+    // nothing but the temporary files of any snapshot or shards it replaces. The batch can be committed on another
+    // thread while semester keeps changing, as long as batches are committed in the order they were prepared, and
+    // must be discarded if it is not committed. If committing it fails, saveFailed must be called before the next
+    // batch for semester is committed; throws IOException if semester cannot be serialized to a temporary file
+    public SaveBatch prepareSave(Semester semester) throws IOException {
+        if (!semester.isDirty()) {
+            return new SaveBatch();
+        }
+        ShardIndex index = shardIndexes.get(semester);
+        if (index != null) {
+            return withCatalogUpdate(semester, prepareSharded(semester, index.getDepth()));
+        }
+        String path = pathOf(semester.getName());
+        SemesterJournal journal = journals.get(semester);
+        if (journal != null && journal.getSnapshotPath().equals(path) && journal.size() < COMPACTION_THRESHOLD) {
+            SaveBatch batch = new SaveBatch();
+            batch.add(journal.drain());
+            semester.markClean();
+            return withCatalogUpdate(semester, batch);
+        }
+        return withCatalogUpdate(semester, prepareCompact(semester));
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: marks semester dirty and makes its next save rewrite it in full, for use once a batch prepared for it
+    // failed to commit
+    public void saveFailed(Semester semester) {
+        semester.markDirty();
+        ShardIndex index = shardIndexes.get(semester);
+        if (index != null) {
+            shardIndexes.put(semester, new ShardIndex(index.getDirectory(), index.getDepth()));
+        } else {
+            detachJournal(semester);
+        }
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: writes semester to a fresh snapshot file, discards its journal, starts a new one and marks semester
+    // clean; throws IOException if an error occurs writing
+    public void compact(Semester semester) throws IOException {
+        commit(semester, withCatalogUpdate(semester, prepareCompact(semester)));
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: saves semester as a manifest plus one shard file per Course (ShardedJsonWriter.COURSE_SHARDS) or per
+    // Topic (ShardedJsonWriter.TOPIC_SHARDS) in a directory named after it and marks it clean. Only shards that
+    // changed since semester was loaded or last saved are rewritten, and semester is saved this way from now on;
+    // throws IOException if an error occurs writing
+    public void saveSharded(Semester semester, int shardDepth) throws IOException {
+        commit(semester, withCatalogUpdate(semester, prepareSharded(semester, shardDepth)));
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: adds the cards in the file of importer to semester without journaling them, then saves semester with
+    // one compacting save, or by rewriting its changed shards if it is sharded, and returns the import report. Cards
+    // added to existing topics fire one event each, so an AutoSaver of semester should be closed first; throws
+    // IOException if an error occurs reading the file or writing, after saving the rows read before it
+    public ImportReport importCards(Semester semester, CardImporter importer) throws IOException {
+        detachJournal(semester);
+        try {
+            return importer.importInto(semester);
+        } finally {
+            if (shardIndexes.containsKey(semester)) {
+                save(semester);
+            } else {
+                compact(semester);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the summaries of all semesters in directory in alphabetical order of name. Summaries come from
+    // the catalog, and only semesters modified since they were catalogued are read to summarize them again; semesters
+    // that cannot be read are left out
+    public List<SemesterSummary> listSummaries() {
+        List<String> names = listSemesters();
+        List<SemesterSummary> summaries = new ArrayList<>();
+        for (String name : names) {
+            long modified = lastModified(name);
+            SemesterSummary summary = catalog.get(name, modified);
+            if (summary == null) {
+                try {
+                    summary = SemesterSummary.of(read(name), modified);
+                } catch (IOException | UncheckedIOException | JSONException e) {
+                    continue;
+                }
+                catalog.put(summary);
+            }
+            summaries.add(summary);
+        }
+        catalog.retainAll(names);
+        try {
+            catalog.write();
+        } catch (IOException e) {
+            // the summaries are rebuilt from the semesters next time
+        }
+        return summaries;
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: commits batch prepared for semester, calling saveFailed before rethrowing if it fails
+    private void commit(Semester semester, SaveBatch batch) throws IOException {
+        try {
+            batch.commit();
+        } catch (IOException e) {
+            saveFailed(semester);
+            throw e;
+        }
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: returns batch replacing the snapshot file of semester and deleting its journal file, starts a new
+    // journal and marks semester clean
+    private SaveBatch prepareCompact(Semester semester) throws IOException {
+        String path = pathOf(semester.getName());
+        SaveBatch batch = new SaveBatch();
+        batch.replace(Paths.get(path), out -> writeSnapshot(semester, path, out));
+        batch.delete(Paths.get(path + SemesterJournal.EXTENSION));
+        attachJournal(semester, SemesterJournal.startFresh(path));
+        semester.markClean();
+        return batch;
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: returns batch saving semester sharded at shardDepth (see saveSharded), stops journaling it and marks it
+    // clean; throws IOException if an error occurs writing the temporary files of its changed shards
+    private SaveBatch prepareSharded(Semester semester, int shardDepth) throws IOException {
+        Path shardDirectory = Paths.get(directory, semester.getName()).toAbsolutePath().normalize();
+        ShardIndex index = shardIndexes.get(semester);
+        if (index == null || !index.getDirectory().equals(shardDirectory) || index.getDepth() != shardDepth) {
+            index = new ShardIndex(shardDirectory, shardDepth);
+        }
+        SaveBatch batch = new ShardedJsonWriter(index).prepare(semester);
+        shardIndexes.put(semester, index);
+        detachJournal(semester);
+        semester.markClean();
+        return batch;
+    }
+
+    // MODIFIES: batch
+    // EFFECTS: returns batch, adding recording the summary of semester in the catalog once the files before it are
+    // written. If parts of semester are not loaded, its summary is forgotten instead and rebuilt when next listed
+    private SaveBatch withCatalogUpdate(Semester semester, SaveBatch batch) {
+        String name = semester.getName();
+        if (isFullyLoaded(semester)) {
+            SemesterSummary summary = SemesterSummary.of(semester, 0);
+            batch.add(() -> {
+                catalog.put(summary.withModified(lastModified(name)));
+                catalog.write();
+            });
+        } else {
+            batch.add(() -> {
+                catalog.remove(name);
+                catalog.write();
+            });
+        }
+        return batch;
+    }
+
+    // EFFECTS: returns true if sc and all collections below it are loaded
+    private static boolean isFullyLoaded(StudyCollection<?> sc) {
+        if (!sc.isLoaded()) {
+            return false;
+        }
+        if (sc instanceof Topic) {
+            return true;
+        }
+        for (StudyMaterial sm : sc.getAll().values()) {
+            if (!isFullyLoaded((StudyCollection<?>) sm)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns when the files semester called name is loaded from were last modified, in milliseconds since
+    // the epoch, or 0 if there are none
+    private long lastModified(String name) {
+        String path = pathOf(name);
+        return Math.max(new File(path).lastModified(), new File(path + SemesterJournal.EXTENSION).lastModified());
+    }
+
+    // EFFECTS: reads the semester called name, including its journal, without journaling it or recording its shards;
+    // throws IOException if it does not exist or an error occurs reading it
+    private Semester read(String name) throws IOException {
+        String path = pathOf(name);
+        if (path.endsWith(ShardedJsonWriter.MANIFEST)) {
+            return new JsonReader(path).read();
+        } else if (path.endsWith(BINARY_EXTENSION)) {
+            return new MappedSemesterReader(path).read();
+        }
+        return new SnapshotCache(path).read();
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: replaces the journal logging modifications to semester with journal
+    private void attachJournal(Semester semester, SemesterJournal journal) {
+        detachJournal(semester);
+        semester.addListener(journal);
+        journals.put(semester, journal);
+    }
+
+    // MODIFIES: this, semester
+    // EFFECTS: stops logging modifications to semester
+    private void detachJournal(Semester semester) {
+        SemesterJournal journal = journals.remove(semester);
+        if (journal != null) {
+            semester.removeListener(journal);
+        }
+    }
+
+    // EFFECTS: writes semester to out as the snapshot file at path, in the format its extension names, and closes out
+    private void writeSnapshot(Semester semester, String path, OutputStream out) throws IOException {
+        if (path.endsWith(BINARY_EXTENSION)) {
+            BinaryWriter writer = new BinaryWriter(out);
+            writer.open();
+            try {
+                writer.write(semester);
+            } finally {
+                writer.close();
+            }
+        } else if (path.endsWith(COMPRESSED_EXTENSION)) {
+            JsonStreamWriter writer = new JsonStreamWriter(JsonFormat.compress(out, compressionLevel), true);
+            writer.open();
+            try {
+                writer.write(semester);
+            } finally {
+                writer.close();
+            }
+        } else {
+            JsonStreamWriter writer = new JsonStreamWriter(out, false);
+            writer.open();
+            try {
+                writer.write(semester);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    // EFFECTS: returns the names of all semesters in directory in alphabetical order
+    public List<String> listSemesters() {
+        SortedSet<String> names = new TreeSet<>();
+        String[] files = new File(directory).list();
+        if (files != null) {
+            for (String file : files) {
+                if (new File(directory + file, ShardedJsonWriter.MANIFEST).exists()) {
+                    names.add(file);
+                } else if (file.endsWith(COMPRESSED_EXTENSION)) {
+                    names.add(file.substring(0, file.length() - COMPRESSED_EXTENSION.length()));
+                } else if (file.endsWith(JSON_EXTENSION)) {
+                    names.add(file.substring(0, file.length() - JSON_EXTENSION.length()));
+                } else if (file.endsWith(BINARY_EXTENSION)) {
+                    names.add(file.substring(0, file.length() - BINARY_EXTENSION.length()));
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,134 @@
+package persistence;
+
+import model.*;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// The size and study state of a semester as recorded in a SemesterCatalog, so that semesters can be listed and
+// compared without reading them
+public class SemesterSummary implements Writable {
+    private final String name;
+    private final int courses;
+    private final int topics;
+    private final int cards;
+    private final Map<Confidence, Integer> cardsAtConfidence;
+    private final LocalDate lastStudied;
+    private final long modified;
+
+    // EFFECTS: makes summary of semester called name, whose files were last modified at modified (in milliseconds
+    // since the epoch). lastStudied is null if nothing in it has been studied
+    SemesterSummary(String name, int courses, int topics, int cards, Map<Confidence, Integer> cardsAtConfidence,
+                    LocalDate lastStudied, long modified) {
+        this.name = name;
+        this.courses = courses;
+        this.topics = topics;
+        this.cards = cards;
+        Map<Confidence, Integer> copy = new EnumMap<>(Confidence.class);
+        copy.putAll(cardsAtConfidence);
+        this.cardsAtConfidence = Collections.unmodifiableMap(copy);
+        this.lastStudied = lastStudied;
+        this.modified = modified;
+    }
+
+    // EFFECTS: returns summary of semester, whose files were last modified at modified. The card counts and last
+    // study day come from the tallies and caches semester keeps, so only the first summary of a semester walks its
+    // cards and later ones take time in the number of courses plus the materials modified since
+    static SemesterSummary of(Semester semester, long modified) {
+        int topics = 0;
+        for (Course course : semester.getAll().values()) {
+            topics += course.size();
+        }
+        Map<Confidence, Integer> cardsAtConfidence = new EnumMap<>(Confidence.class);
+        for (Confidence confidence : Confidence.values()) {
+            int count = semester.countCardsAtConfidence(confidence);
+            if (count > 0) {
+                cardsAtConfidence.put(confidence, count);
+            }
+        }
+        int latest = semester.getLatestStudyEpochDay();
+        LocalDate lastStudied = latest == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(latest);
+        return new SemesterSummary(semester.getName(), semester.size(), topics, semester.countCards(),
+                cardsAtConfidence, lastStudied, modified);
+    }
+
+    // EFFECTS: returns summary read from json; throws JSONException if a field is missing
+    static SemesterSummary fromJson(JSONObject json) {
+        Map<Confidence, Integer> cardsAtConfidence = new EnumMap<>(Confidence.class);
+        JSONObject jsonConfidence = json.getJSONObject("cardsAtConfidence");
+        for (String confidence : jsonConfidence.keySet()) {
+            cardsAtConfidence.put(Confidence.valueOf(confidence), jsonConfidence.getInt(confidence));
+        }
+        LocalDate lastStudied = json.has("lastStudied") ? LocalDate.ofEpochDay(json.getLong("lastStudied")) : null;
+        return new SemesterSummary(json.getString("name"), json.getInt("courses"), json.getInt("topics"),
+                json.getInt("cards"), cardsAtConfidence, lastStudied, json.getLong("modified"));
+    }
+
+    // EFFECTS: returns this with its files last modified at modified instead
+    SemesterSummary withModified(long modified) {
+        return new SemesterSummary(name, courses, topics, cards, cardsAtConfidence, lastStudied, modified);
+    }
+
+    //effects: returns name
+    public String getName() {
+        return name;
+    }
+
+    //effects: returns number of courses
+    public int getCourses() {
+        return courses;
+    }
+
+    //effects: returns number of topics
+    public int getTopics() {
+        return topics;
+    }
+
+    //effects: returns number of cards
+    public int getCards() {
+        return cards;
+    }
+
+    //effects: returns number of cards at confidence
+    public int getCards(Confidence confidence) {
+        return cardsAtConfidence.getOrDefault(confidence, 0);
+    }
+
+    //effects: returns the last date anything in the semester was studied, null if nothing was
+    public LocalDate getLastStudied() {
+        return lastStudied;
+    }
+
+    //effects: returns when the files of the semester were last modified, in milliseconds since the epoch
+    public long getModified() {
+        return modified;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("courses", courses);
+        json.put("topics", topics);
+        json.put("cards", cards);
+        json.put("cardsAtConfidence", new JSONObject(cardsAtConfidence));
+        if (lastStudied != null) {
+            json.put("lastStudied", lastStudied.toEpochDay());
+        }
+        json.put("modified", modified);
+        return json;
+    }
+
+    @Override
+    //effects: returns name with the size of the semester and when it was last studied
+    public String toString() {
+        String summary = String.format("%s (%d courses, %d topics, %d cards", name, courses, topics, cards);
+        if (lastStudied != null) {
+            summary += ", last studied " + lastStudied;
+        }
+        return summary + ")";
+    }
+}
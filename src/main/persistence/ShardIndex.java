@@ -0,0 +1,69 @@
+package persistence;
+
+import model.StudyCollection;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Records which shard file in the directory of a sharded semester holds the sub-materials of each sharded
+// StudyCollection. Shards are numbered files so that renaming a Course or Topic never moves its shard.
+class ShardIndex {
+    private static final Pattern SHARD_FILE = Pattern.compile("shard\\d+\\.json");
+
+    private final Path directory;
+    private final int depth;
+    private Map<StudyCollection<?>, String> files;
+    private int nextId;
+
+    // EFFECTS: makes empty index for a semester sharded at depth (1 is Course, 2 is Topic) stored in directory
+    ShardIndex(Path directory, int depth) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.depth = depth;
+        this.files = new IdentityHashMap<>();
+    }
+
+    // EFFECTS: returns the directory holding the manifest and shard files
+    Path getDirectory() {
+        return directory;
+    }
+
+    // EFFECTS: returns the depth of the sharded materials in the semester hierarchy
+    int getDepth() {
+        return depth;
+    }
+
+    // EFFECTS: returns the shard file holding the sub-materials of sc, null if sc has no shard yet
+    String fileOf(StudyCollection<?> sc) {
+        return files.get(sc);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the sub-materials of sc are held in shard file
+    void put(StudyCollection<?> sc, String file) {
+        files.put(sc, file);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces all recorded shards with files
+    void replaceAll(Map<StudyCollection<?>, String> files) {
+        this.files = files;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the name of a shard file that is neither recorded nor present in directory
+    String newFile() {
+        String file;
+        do {
+            file = "shard" + nextId++ + ".json";
+        } while (files.containsValue(file) || Files.exists(directory.resolve(file)));
+        return file;
+    }
+
+    // EFFECTS: returns true if file is named like a shard file
+    static boolean isShardFile(String file) {
+        return SHARD_FILE.matcher(file).matches();
+    }
+}
@@ -0,0 +1,142 @@
+package persistence;
+
+import model.Semester;
+import model.StudyCollection;
+import model.StudyMaterial;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Represents a writer that saves a Semester as a directory holding a small manifest plus one shard file for each
+// Course or each Topic. The manifest keeps every material above the shard depth and, for each sharded material, its
+// name, confidence, study dates and shard file, so JsonReader can read it without touching any shard. Only the
+// shards of materials that are dirty (see StudyMaterial.isDirty) or new to the directory are rewritten; clean
+// subtrees, including any that were never loaded, are skipped without being serialized. Each shard is streamed by a
+// JsonStreamWriter into the temporary file that replaces it, so no shard is built as JSON objects or one string.
+public class ShardedJsonWriter {
+    public static final String MANIFEST = "manifest.json";
+    public static final int COURSE_SHARDS = 1;
+    public static final int TOPIC_SHARDS = 2;
+    static final String SHARD_KEY = "shard";
+    static final String SHARD_DEPTH_KEY = "shardDepth";
+    private static final int TAB = 4;
+
+    private final ShardIndex index;
+
+    // EFFECTS: constructs writer to write a semester into directory with one shard per Course (COURSE_SHARDS) or
+    // per Topic (TOPIC_SHARDS). Throws IllegalArgumentException for any other shardDepth
+    public ShardedJsonWriter(String directory, int shardDepth) {
+        this(new ShardIndex(Paths.get(directory), shardDepth));
+    }
+
+    // EFFECTS: constructs writer to update the sharded semester recorded by index
+    ShardedJsonWriter(ShardIndex index) {
+        if (index.getDepth() != COURSE_SHARDS && index.getDepth() != TOPIC_SHARDS) {
+            throw new IllegalArgumentException("Semesters can only be sharded by Course or Topic");
+        }
+        this.index = index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the shards of semester that changed, then its manifest, then deletes the shards of materials
+    // no longer in semester. Does not mark semester clean; throws IOException if an error occurs writing
+    public void write(Semester semester) throws IOException {
+        prepare(semester).commit();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the batch that performs write(semester), writing the changed shards and the manifest to their
+    // temporary files now so that the batch can be committed while semester keeps changing; throws IOException if an
+    // error occurs writing them, after deleting those already written
+    SaveBatch prepare(Semester semester) throws IOException {
+        SaveBatch batch = new SaveBatch();
+        Map<StudyCollection<?>, String> shards = new IdentityHashMap<>();
+        try {
+            JSONObject manifest = manifestOf(semester, 0, shards, batch);
+            manifest.put(SHARD_DEPTH_KEY, index.getDepth());
+            manifest.put(JsonFormat.VERSION_KEY, JsonFormat.VERSION);
+            byte[] contents = manifest.toString(TAB).getBytes(StandardCharsets.UTF_8);
+            batch.replace(index.getDirectory().resolve(MANIFEST), out -> out.write(contents));
+        } catch (IOException | RuntimeException e) {
+            batch.discard();
+            throw e;
+        }
+        index.replaceAll(shards);
+        Set<String> referenced = new HashSet<>(shards.values());
+        batch.add(() -> deleteUnreferenced(referenced));
+        return batch;
+    }
+
+    // MODIFIES: this, shards, batch
+    // EFFECTS: returns the manifest JSON of sc at depth, adding the write of each changed shard to batch and recording
+    // every shard in shards
+    private JSONObject manifestOf(StudyCollection<?> sc, int depth, Map<StudyCollection<?>, String> shards,
+                                  SaveBatch batch) throws IOException {
+        JSONObject json = fieldsOf(sc);
+        if (depth == index.getDepth()) {
+            json.put(SHARD_KEY, writeShard(sc, shards, batch));
+        } else {
+            JSONArray materialMap = new JSONArray();
+            for (StudyMaterial sm : sc.getAll().values()) {
+                materialMap.put(manifestOf((StudyCollection<?>) sm, depth + 1, shards, batch));
+            }
+            json.put("materialMap", materialMap);
+        }
+        return json;
+    }
+
+    // MODIFIES: this, shards, batch
+    // EFFECTS: streams sc to the temporary file of its shard and adds replacing the shard with it to batch if it has
+    // no shard yet or it is dirty, and returns the file name of its shard
+    private String writeShard(StudyCollection<?> sc, Map<StudyCollection<?>, String> shards, SaveBatch batch)
+            throws IOException {
+        String file = index.fileOf(sc);
+        if (file == null || sc.isDirty()) {
+            if (file == null) {
+                file = index.newFile();
+            }
+            batch.replace(index.getDirectory().resolve(file), out -> {
+                JsonStreamWriter writer = new JsonStreamWriter(out, false);
+                writer.open();
+                try {
+                    writer.writeCollection(sc);
+                } finally {
+                    writer.close();
+                }
+            });
+        }
+        shards.put(sc, file);
+        return file;
+    }
+
+    // EFFECTS: returns JSON of the name, confidence and study dates of sm, in the format of StudyMaterial.toJson
+    private JSONObject fieldsOf(StudyMaterial sm) {
+        JSONObject json = new JSONObject();
+        json.put("name", sm.getName());
+        json.put("confidence", sm.getConfidence());
+        json.put("studyDates", JsonFormat.studyDatesToJson(sm.getStudyDates()));
+        return json;
+    }
+
+    // EFFECTS: deletes the shard files in the directory that are not referenced
+    private void deleteUnreferenced(Set<String> referenced) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(index.getDirectory())) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (ShardIndex.isShardFile(name) && !referenced.contains(name)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package persistence;
+
+import model.Semester;
+import model.StringPool;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Caches the Semester parsed from a JSON semester file in a binary snapshot next to it, named after it with
+// EXTENSION, so that an unchanged file is loaded without parsing JSON. A snapshot is MAGIC, a VERSION byte, the size,
+// modification time and CRC-32 checksum of the JSON file it was made from, then the semester as a binary semester
+// file (see BinaryFormat). It is only used while all three still match the JSON file, and is otherwise regenerated
+// from it. Snapshots are memory-mapped like binary semesters, so their cards load lazily. The journal of the JSON
+// file is replayed on top of the snapshot, so saves that only append to the journal keep the snapshot current.
+public class SnapshotCache {
+    public static final String EXTENSION = ".snapshot";
+    private static final byte[] MAGIC = {'F', 'M', 'S', 'C'};
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String source;
+    private final Path snapshot;
+    private final StringPool stringPool;
+
+    // EFFECTS: constructs cache for the JSON semester file at source
+    public SnapshotCache(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs cache for the JSON semester file at source whose semesters share repeated card text through
+    // stringPool, which the semester read keeps using, unless it is null
+    public SnapshotCache(String source, StringPool stringPool) {
+        this.source = source;
+        this.snapshot = Paths.get(source + EXTENSION);
+        this.stringPool = stringPool;
+    }
+
+    // EFFECTS: reads Semester from source, taken from its snapshot if that is current and otherwise parsed from
+    // source and written to a fresh snapshot, applies any modifications logged in its journal and returns it marked
+    // clean. A snapshot that cannot be read or written is treated as missing;
+    // throws IOException if an error occurs reading source
+    public Semester read() throws IOException {
+        Semester semester = readSnapshot();
+        if (semester == null) {
+            long[] key = keyOf(source);
+            semester = new JsonStreamReader(source, stringPool).readWithoutJournal();
+            writeSnapshot(semester, key);
+        }
+        SemesterJournal.replay(source, semester);
+        semester.markClean();
+        return semester;
+    }
+
+    // EFFECTS: returns the Semester in the snapshot of source, with its cards read from the mapped snapshot when
+    // first accessed, or null if there is no snapshot, it is not current or it cannot be read
+    private Semester readSnapshot() {
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = MappedSemesterReader.map(snapshot.toString());
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || (buffer.get() & 0xFF) != VERSION) {
+                return null;
+            }
+            long[] key = {buffer.getLong(), buffer.getLong(), buffer.getLong()};
+            Path path = Paths.get(source);
+            if (key[0] != Files.size(path) || key[1] != Files.getLastModifiedTime(path).toMillis()
+                    || key[2] != checksumOf(path)) {
+                return null;
+            }
+            return new MappedSemesterReader(snapshot.toString(), stringPool).read(buffer);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: replaces the snapshot of source with semester, made from source when it had key. The header only
+    // depends on key, so it is written first and the semester streamed after it into the temporary file of the
+    // snapshot. Leaves the old snapshot, which no longer matches source, if it cannot be written
+    private void writeSnapshot(Semester semester, long[] key) {
+        try {
+            SaveBatch.replaceAtomically(snapshot, stream -> {
+                DataOutputStream out = new DataOutputStream(stream);
+                out.write(MAGIC);
+                out.writeByte(VERSION);
+                for (long field : key) {
+                    out.writeLong(field);
+                }
+                BinaryWriter writer = new BinaryWriter(out);
+                writer.open();
+                try {
+                    writer.write(semester);
+                } finally {
+                    writer.close();
+                }
+            });
+        } catch (IOException e) {
+            // the snapshot is regenerated on the next read
+        }
+    }
+
+    // EFFECTS: returns the size, modification time and checksum of the file at path;
+    // throws IOException if an error occurs reading it
+    private static long[] keyOf(String path) throws IOException {
+        Path file = Paths.get(path);
+        return new long[]{Files.size(file), Files.getLastModifiedTime(file).toMillis(), checksumOf(file)};
+    }
+
+    // EFFECTS: returns the CRC-32 checksum of the contents of the file at path;
+    // throws IOException if an error occurs reading it
+    private static long checksumOf(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+}
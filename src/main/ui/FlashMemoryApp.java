@@ -4,12 +4,18 @@ import exceptions.DuplicateElementException;
 import exceptions.ModifyException;
 import exceptions.NoElementException;
 import model.*;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AutoSaver;
+import persistence.CardExporter;
+import persistence.CardImporter;
+import persistence.SemesterStore;
+import persistence.SemesterSummary;
+import persistence.ShardedJsonWriter;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 // Runner class for FlashMemoryApp. Loops for user input and invokes commands that act on a semester.
 public class FlashMemoryApp {
@@ -18,6 +24,11 @@ public class FlashMemoryApp {
 
     private static final String LOAD_CMD = "load";
     private static final String SAVE_CMD = "save";
+    private static final String SHARD_CMD = "shard";
+    private static final String COURSE_SHARDS_OPTION = "course";
+    private static final String TOPIC_SHARDS_OPTION = "topic";
+    private static final String IMPORT_CMD = "import";
+    private static final String EXPORT_CMD = "export";
 
 
     private static final String LIST_POSITION_CMD = "ls";
@@ -29,13 +40,19 @@ public class FlashMemoryApp {
     private static final String EDIT_CMD = "edit";
     private static final String STUDY_CMD = "study";
     private static final String TEST_CMD = "test";
+    private static final String DUE_CMD = "due";
+    private static final int DUE_LIMIT = 10;
     private static final String HELP_CMD = "help";
     private static final String QUIT_CMD = "quit";
 
     private static Map<String, Runnable> commands;
 
     private final Scanner input;
+    private final SemesterStore store;
+    private final Object modelLock;
     private Semester semester;
+    private AutoSaver autoSaver;
+    private Scheduler scheduler;
     private boolean runApp;
     private StudyCollection<?> pointer;
     private final Stack<StudyCollection<?>> breadcrumb;
@@ -54,9 +71,13 @@ public class FlashMemoryApp {
         commands.put(EDIT_CMD, this::editName);
         commands.put(STUDY_CMD, this::study);
         commands.put(TEST_CMD, this::test);
+        commands.put(DUE_CMD, this::listDue);
         commands.put(HELP_CMD, this::printCommands);
         commands.put(SAVE_CMD, this::saveSemester);
+        commands.put(SHARD_CMD, this::shardSemester);
         commands.put(LOAD_CMD, this::loadSemester);
+        commands.put(IMPORT_CMD, this::importCards);
+        commands.put(EXPORT_CMD, this::exportCards);
         commands.put(QUIT_CMD, this::quit);
     }
 
@@ -73,29 +94,32 @@ public class FlashMemoryApp {
     //modifies: this
     //effects: makes new FlashMemoryApp by starting input, runApp and makes commandMap. Asks user for what their new
     //         semester is called. Loads from JSON if semester already exists, otherwise make new semester.
-    //         Instantiates pointer and breadcrumb and sets pointer to new semester.
+    //         Instantiates pointer and breadcrumb, sets pointer to new semester and starts autosaving it.
     // adapted from FitLifeGymKiosk @ https://github.com/UBCx-Software-Construction/long-form-problem-starters.git
     public FlashMemoryApp() {
         input = new Scanner(System.in);
+        store = new SemesterStore(JSON_DIRECTORY);
+        store.setStringPooling(true);
+        modelLock = new Object();
         runApp = true;
         makeCommandMap();
 
+        printSemesters();
         System.out.println("Please enter name of Semester you want to load. "
                 + "If it doesn't exist, a new Semester will be made.");
         String str = makePrettyText(input.nextLine());
 
-        String filepath = JSON_DIRECTORY + str + ".json";
-        JsonReader reader = new JsonReader(filepath);
-
         try {
-            semester = reader.read();
+            semester = store.load(str);
             System.out.printf("Your semester called \"%s\" has been loaded.\n\n", str);
         } catch (IOException e) {
             semester = new Semester(str);
+            semester.setStringPool(store.newStringPool());
             System.out.printf("A new semester called \"%s\" has been created.\n\n", str);
         } finally {
             pointer = semester;
             breadcrumb = new Stack<>();
+            startAutoSave();
         }
     }
 
@@ -115,11 +139,13 @@ public class FlashMemoryApp {
         }
     }
 
-    //effects:  checks input > 0 and the command exists. Calls the function mapped to the command in commands.
-    //          otherwise prints invalid input.
+    //effects:  checks input > 0 and the command exists. Calls the function mapped to the command in commands while
+    //          holding modelLock, so autosaves never see a command half done. otherwise prints invalid input.
     private void parseCommand(String command) {
         if (command.length() > 0 && commands.containsKey(command)) {
-            commands.get(command).run();
+            synchronized (modelLock) {
+                commands.get(command).run();
+            }
         } else {
             System.out.println("Invalid input. Please try again.");
         }
@@ -195,7 +221,7 @@ public class FlashMemoryApp {
             String str = makePrettyCommand(input.nextLine());
 
             if (str.equals("y") || str.equals("yes")) {
-                testCards(pointer.getAllCards());
+                testCards(pointer.streamCards().collect(Collectors.toList()));
                 parseStudyConfidence(pointer);
             }
         } else {
@@ -203,12 +229,12 @@ public class FlashMemoryApp {
         }
     }
 
-    //requires: allCards not be empty
-    //effects: shuffles cards in all cards and presents them to user, then ask for his confidence. User can break by
+    //requires: cards not be empty
+    //modifies: cards
+    //effects: shuffles cards and presents them to user, then ask for his confidence. User can break by
     //         enter quit
-    private void testCards(Collection<Card> allCards) {
+    private void testCards(List<Card> cards) {
         System.out.println("Press enter anything to be shown the answer, enter \"q\" to leave");
-        List<Card> cards = new ArrayList<>(allCards);
         Collections.shuffle(cards);
         for (Card c : cards) {
             System.out.println(c.getQuestion());
@@ -229,8 +255,12 @@ public class FlashMemoryApp {
     }
 
     //modifies: this
-    //effects: set runApp to false and asks user if they want to save
+    //effects: set runApp to false and asks user if they want to save, unless nothing changed since the last save
     private void quit() {
+        runApp = false;
+        if (!semester.isDirty()) {
+            return;
+        }
         System.out.println("Do you want to save your Semester? (yes/no)");
         while (true) {
             String str = makePrettyCommand(input.nextLine());
@@ -244,7 +274,6 @@ public class FlashMemoryApp {
                 System.out.println("Invalid input. Do you want to save your Semester? (yes/no)");
             }
         }
-        runApp = false;
     }
 
     //modifies: this
@@ -363,10 +392,10 @@ public class FlashMemoryApp {
 
     //effects: lists all study material with last study date and confidence under the pointer
     private void listPosition() {
-        if (pointer.getSortedByPriority().isEmpty()) {
+        if (pointer.getByPriority().isEmpty()) {
             System.out.printf("There is nothing under \"%s\".\n", pointer.getName());
         } else {
-            for (Object m : pointer.getSortedByPriority()) {
+            for (Object m : pointer.getByPriority()) {
                 StudyMaterial sm = ((StudyMaterial) m);
                 System.out.printf("%s: Studied %d time(s), last modified on %s at %s\n",
                         sm, sm.getTimesStudied(), sm.getLastStudyDate(), sm.getConfidence());
@@ -374,6 +403,23 @@ public class FlashMemoryApp {
         }
     }
 
+    //modifies: this
+    //effects: prints the cards in semester due today or earlier, up to DUE_LIMIT of them, scheduling the semester the
+    //         first time
+    private void listDue() {
+        if (scheduler == null) {
+            scheduler = new Scheduler(semester, IntervalModel.SM2);
+        }
+        List<Card> due = scheduler.getDue(LocalDate.now(), DUE_LIMIT);
+        if (due.isEmpty()) {
+            System.out.printf("Nothing in \"%s\" is due today.\n", semester.getName());
+        }
+        for (Card card : due) {
+            System.out.printf("%s in %s: due %s at %s\n",
+                    card, card.getParent(), scheduler.getDueDate(card), card.getConfidence());
+        }
+    }
+
     //effects: prints out help menu with commands
     // adapted from FitLifeGymKiosk @ https://github.com/UBCx-Software-Construction/long-form-problem-starters.git
     private void printCommands() {
@@ -386,8 +432,14 @@ public class FlashMemoryApp {
         System.out.printf("Enter \"%s\" to edit the name of an element.\n", EDIT_CMD);
         System.out.printf("Enter \"%s\" to record that you studied something.\n", STUDY_CMD);
         System.out.printf("Enter \"%s\" to test yourself on all the cards in what you are looking at.\n", TEST_CMD);
+        System.out.printf("Enter \"%s\" to list the cards in the semester that are due for review.\n", DUE_CMD);
         System.out.printf("Enter \"%s\" to load semester from file.\n", LOAD_CMD);
         System.out.printf("Enter \"%s\" to save semester to file.\n", SAVE_CMD);
+        System.out.printf("Enter \"%s\" to save semester as a file per course or topic, so saves only rewrite what "
+                + "changed.\n", SHARD_CMD);
+        System.out.printf("Enter \"%s\" to import cards from a CSV or TSV file.\n", IMPORT_CMD);
+        System.out.printf("Enter \"%s\" to export the cards in what you are looking at to a CSV or TSV file.\n",
+                EXPORT_CMD);
         System.out.printf("Enter \"%s\" to see commands.\n", HELP_CMD);
         System.out.printf("Enter \"%s\" to quit.\n", QUIT_CMD);
     }
@@ -409,44 +461,138 @@ public class FlashMemoryApp {
         return s;
     }
 
-    //effects: stops receiving user input
+    //effects: stops autosaving, waiting for saves in progress, and stops receiving user input
     // adapted from FitLifeGymKiosk @ https://github.com/UBCx-Software-Construction/long-form-problem-starters.git
     public void end() {
         System.out.println("Quitting...");
+        autoSaver.close();
         input.close();
     }
 
-    //effects: saves semester to file
+    //modifies: this
+    //effects: stops autosaving the previous semester and starts saving semester in the background shortly after each
+    //         change. Autosaves read semester while holding modelLock
+    private void startAutoSave() {
+        if (autoSaver != null) {
+            autoSaver.close();
+        }
+        autoSaver = new AutoSaver(store, semester, task -> {
+            synchronized (modelLock) {
+                task.run();
+            }
+        }, AutoSaver.DEFAULT_DELAY_MILLIS, e -> System.out.println("Unable to autosave to file: " + e.getMessage()));
+    }
+
+    //effects: saves semester to file if it changed since the last save, waiting until it is written
     // adapted from JsonSerializationDemo @ https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
     private void saveSemester() {
-        String filePath = JSON_DIRECTORY + semester.getName() + ".json";
-        JsonWriter writer = new JsonWriter(filePath);
+        String filePath = store.pathOf(semester.getName());
+        if (!semester.isDirty()) {
+            System.out.println("No changes to save in " + semester.getName());
+            return;
+        }
         try {
-            writer.open();
-            writer.write(semester);
-            writer.close();
+            autoSaver.saveNow().get();
             System.out.println("Saved " + semester.getName() + " to " + filePath);
-        } catch (FileNotFoundException e) {
+        } catch (ExecutionException e) {
             System.out.println("Unable to write to file: " + filePath);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //modifies: this
+    //effects: asks whether to keep a file per course or per topic and saves semester that way from now on, so each
+    //         save only rewrites the courses or topics that changed. Autosaving is restarted once it is saved
+    private void shardSemester() {
+        System.out.printf("Enter \"%s\" to keep a file per course or \"%s\" to keep a file per topic.\n",
+                COURSE_SHARDS_OPTION, TOPIC_SHARDS_OPTION);
+        String option = input.nextLine().trim().toLowerCase();
+        int shardDepth;
+        if (option.equals(COURSE_SHARDS_OPTION)) {
+            shardDepth = ShardedJsonWriter.COURSE_SHARDS;
+        } else if (option.equals(TOPIC_SHARDS_OPTION)) {
+            shardDepth = ShardedJsonWriter.TOPIC_SHARDS;
+        } else {
+            System.out.printf("Invalid entry. Type \"%s\" and try again.\n", SHARD_CMD);
+            return;
+        }
+
+        autoSaver.close();
+        try {
+            store.saveSharded(semester, shardDepth);
+            System.out.println("Saved " + semester.getName() + " to " + store.pathOf(semester.getName()));
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + store.pathOf(semester.getName()));
+        } finally {
+            startAutoSave();
+        }
+    }
+
+    //effects: prints the semesters in JSON_DIRECTORY with their sizes, taken from the catalog without reading them
+    private void printSemesters() {
+        List<SemesterSummary> summaries = store.listSummaries();
+        if (!summaries.isEmpty()) {
+            System.out.println("Available semesters:");
+            for (SemesterSummary summary : summaries) {
+                System.out.println("    " + summary);
+            }
         }
     }
 
     //modifies: this
     //effects: loads semester from file
     private void loadSemester() {
+        printSemesters();
         System.out.println("Please enter name of Semester you want to load.");
         String str = makePrettyText(input.nextLine());
 
-        String filepath = JSON_DIRECTORY + str + ".json";
-        JsonReader reader = new JsonReader(filepath);
-
         try {
-            semester = reader.read();
+            semester = store.load(str);
+            if (scheduler != null) {
+                scheduler.close();
+                scheduler = null;
+            }
             pointer = semester;
             breadcrumb.clear();
+            startAutoSave();
             System.out.printf("Your semester called \"%s\" has been loaded.\n\n", str);
         } catch (IOException e) {
             System.out.printf("The semester %s does not exist. Please try again.", str);
         }
     }
+
+    //modifies: this
+    //effects: adds the cards in a CSV or TSV file with rows of course,topic,question,answer[,confidence] to semester,
+    //         creating missing courses and topics, saves it in full and prints what was imported and skipped and the
+    //         memory saved by sharing repeated text. Autosaving is stopped during the import and restarted after it
+    private void importCards() {
+        System.out.println("Please enter path of CSV or TSV file to import.");
+        String path = input.nextLine().trim();
+
+        autoSaver.close();
+        try {
+            System.out.println(store.importCards(semester, new CardImporter(path)));
+            if (semester.getStringPool() != null) {
+                System.out.println(semester.getStringPool());
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to import " + path + ": " + e.getMessage());
+        } finally {
+            startAutoSave();
+        }
+    }
+
+    //effects: writes the cards in what the user is looking at to a CSV or TSV file, one row per card
+    private void exportCards() {
+        System.out.println("Please enter path of CSV or TSV file to export to.");
+        String path = input.nextLine().trim();
+
+        try {
+            int cards = new CardExporter(path).export(pointer);
+            System.out.printf("Exported %d cards from %s to %s\n", cards, pointer.getName(), path);
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + path);
+        }
+    }
 }
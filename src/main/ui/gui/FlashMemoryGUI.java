@@ -9,20 +9,23 @@ import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.data.general.DefaultPieDataset;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AutoSaver;
+import persistence.SemesterStore;
+import persistence.SemesterSummary;
 
 import javax.swing.*;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultTreeModel;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 
 // A JFrame GUI interface for FlashMemory
@@ -30,13 +33,16 @@ public class FlashMemoryGUI extends JFrame {
     // Application Fields
     private static final String JSON_DIRECTORY = "./data/";
     private static final String APP_NAME = "Flash Memory";
+    private static final String UNLOADED_NODE = "Loading...";
     private static final Color[] COLORS = {
             new Color(212, 90, 90),
             new Color(213, 207, 97),
             new Color(109, 217, 90),
             new Color(86, 226, 207)};
 
+    private final SemesterStore store = new SemesterStore(JSON_DIRECTORY);
     private Semester semester;
+    private AutoSaver autoSaver;
     private StudyMaterial pointer;
     private StudyMaterialNode currentNode;
     private DefaultTreeModel semesterModel;
@@ -86,6 +92,7 @@ public class FlashMemoryGUI extends JFrame {
     public FlashMemoryGUI(String title) {
         super(title);
 
+        store.setStringPooling(true);
         setSemester();
         if (semester == null) {
             System.exit(0);
@@ -170,12 +177,24 @@ public class FlashMemoryGUI extends JFrame {
     }
 
     //modifies: this
-    //effects: updates semesterTree and configures variables to update currentNode and invoke currentNodeChanged
+    //effects: updates semesterTree and configures variables to update currentNode and invoke currentNodeChanged.
+    // Loads the children of a node when it is first expanded or selected
     private void setupJTreeListeners() {
         semesterTree.addTreeSelectionListener(e -> {
             currentNode = (StudyMaterialNode) semesterTree.getLastSelectedPathComponent();
+            loadTreeNode(currentNode);
             currentNodeChanged();
         });
+        semesterTree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent event) {
+                loadTreeNode((StudyMaterialNode) event.getPath().getLastPathComponent());
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent event) {
+            }
+        });
     }
 
     //modifies: this
@@ -184,7 +203,7 @@ public class FlashMemoryGUI extends JFrame {
     // Invokes currentNodeChanged
     private void semesterChanged() {
         StudyMaterialNode root = new StudyMaterialNode(semester);
-        addStudyMaterialsToTreeNode(semester.getSortedByPriority(), root);
+        addStudyMaterialsToTreeNode(semester.getByPriority(), root);
         semesterModel = new DefaultTreeModel(root);
         semesterTree.setModel(semesterModel);
         currentNodeChanged();
@@ -192,18 +211,35 @@ public class FlashMemoryGUI extends JFrame {
 
     //modifies: node
     //effects: adds studyMaterials in materials as child nodes of node.
-    // calls recursively to add items within each material if material is a StudyCollection
-    private void addStudyMaterialsToTreeNode(List<?> materials, StudyMaterialNode node) {
+    // calls recursively to add items within each material if material is a StudyCollection. A StudyCollection that
+    // has not been loaded yet gets a placeholder child instead, so that it is only loaded by loadTreeNode
+    private void addStudyMaterialsToTreeNode(Collection<?> materials, StudyMaterialNode node) {
         for (Object sm : materials) {
             StudyMaterialNode newNode = new StudyMaterialNode(sm);
             if (sm instanceof StudyCollection<?>) {
                 StudyCollection<?> sc = (StudyCollection<?>) sm;
-                addStudyMaterialsToTreeNode(sc.getSortedByPriority(), newNode);
+                if (sc.isLoaded()) {
+                    addStudyMaterialsToTreeNode(sc.getByPriority(), newNode);
+                } else {
+                    newNode.add(new StudyMaterialNode(UNLOADED_NODE));
+                }
             }
             node.add(newNode);
         }
     }
 
+    //modifies: this, node
+    //effects: if node only holds the placeholder child, replaces it with nodes for the materials of its
+    // StudyCollection, loading them
+    private void loadTreeNode(StudyMaterialNode node) {
+        if (node != null && node.getChildCount() == 1
+                && ((StudyMaterialNode) node.getFirstChild()).getUserObject() == UNLOADED_NODE) {
+            node.removeAllChildren();
+            addStudyMaterialsToTreeNode(((StudyCollection<?>) node.getUserObject()).getByPriority(), node);
+            semesterModel.nodeStructureChanged(node);
+        }
+    }
+
     //modifies: this
     //effects: updates pointer and pointerPane in this to match new currentNode. Toggles buttons based on pointer class
     private void currentNodeChanged() {
@@ -269,18 +305,11 @@ public class FlashMemoryGUI extends JFrame {
 
     //effects: returns PieDataset based on confidence of cards in sc
     private DefaultPieDataset getConfidenceDataset(StudyCollection<?> sc) {
-        int[] tally = {0, 0, 0, 0};
-
-        for (StudyMaterial sm : sc.getAllCards()) {
-            int confidence = sm.getConfidence().ordinal();
-            tally[confidence]++;
-        }
-
         DefaultPieDataset pieDataset = new DefaultPieDataset();
-        pieDataset.setValue("None", tally[0]);
-        pieDataset.setValue("Low", tally[1]);
-        pieDataset.setValue("Medium", tally[2]);
-        pieDataset.setValue("High", tally[3]);
+        pieDataset.setValue("None", sc.countCardsAtConfidence(Confidence.NONE));
+        pieDataset.setValue("Low", sc.countCardsAtConfidence(Confidence.LOW));
+        pieDataset.setValue("Medium", sc.countCardsAtConfidence(Confidence.MEDIUM));
+        pieDataset.setValue("High", sc.countCardsAtConfidence(Confidence.HIGH));
 
         return pieDataset;
     }
@@ -453,45 +482,72 @@ public class FlashMemoryGUI extends JFrame {
     }
 
     //modifies: this
-    //effects: prompts user to save semester before exiting application. Does nothing if cancelled
+    //effects: prompts user to save semester before exiting application if it changed since the last save, then waits
+    // for saves in progress to be written. Does nothing if cancelled or the save fails
     private void terminate() {
-        Object[] options = {"Save", "Don't Save", "Cancel"};
-        int n = JOptionPane.showOptionDialog(this,
-                "Would you like to save any changes before quitting?",
-                "Save Changes",
-                JOptionPane.YES_NO_CANCEL_OPTION,
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                options,
-                options[0]);
-
-        if (n == 0) {
-            saveSemester();
-        } else if (n == 2) {
-            return;
+        if (semester != null && semester.isDirty()) {
+            Object[] options = {"Save", "Don't Save", "Cancel"};
+            int n = JOptionPane.showOptionDialog(this,
+                    "Would you like to save any changes before quitting?",
+                    "Save Changes",
+                    JOptionPane.YES_NO_CANCEL_OPTION,
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[0]);
+
+            if (n == 0) {
+                try {
+                    autoSaver.saveNow().join();
+                } catch (CompletionException e) {
+                    JOptionPane.showMessageDialog(this, "Unable to write to file:\n" + store.pathOf(semester.getName()));
+                    return;
+                }
+            } else if (n == 2) {
+                return;
+            }
+        }
+        if (autoSaver != null) {
+            autoSaver.close();
         }
         dispose();
         System.exit(0);
     }
 
-    //effects: saves semester to file
+    //effects: saves semester to file in the background if it changed since the last save, notifying user once it is
+    // written
     // adapted from JsonSerializationDemo @ https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
     private void saveSemester() {
-        String filePath = JSON_DIRECTORY + semester.getName() + ".json";
-        JsonWriter writer = new JsonWriter(filePath);
-        try {
-            writer.open();
-            writer.write(semester);
-            writer.close();
-            JOptionPane.showMessageDialog(this, "Saved " + semester.getName());
-        } catch (FileNotFoundException e) {
-            JOptionPane.showMessageDialog(this, "Unable to write to file:\n" + filePath);
+        String name = semester.getName();
+        String filePath = store.pathOf(name);
+        if (!semester.isDirty()) {
+            JOptionPane.showMessageDialog(this, "No changes to save in " + name);
+            return;
+        }
+        autoSaver.saveNow().whenComplete((ignored, e) -> SwingUtilities.invokeLater(() -> {
+            if (e == null) {
+                JOptionPane.showMessageDialog(this, "Saved " + name);
+            } else {
+                JOptionPane.showMessageDialog(this, "Unable to write to file:\n" + filePath);
+            }
+        }));
+    }
+
+    //modifies: this
+    //effects: stops autosaving the previous semester and starts saving semester in the background shortly after each
+    // change, reading semester on the event dispatch thread
+    private void startAutoSave() {
+        if (autoSaver != null) {
+            autoSaver.close();
         }
+        autoSaver = new AutoSaver(store, semester, SwingUtilities::invokeLater, AutoSaver.DEFAULT_DELAY_MILLIS,
+                e -> JOptionPane.showMessageDialog(this, "Unable to autosave to file:\n" + e.getMessage()));
     }
 
-    //effects: asks user if they want to load semester from file or make new semester.
+    //effects: asks user if they want to load semester from file or make new semester, and autosaves the new semester.
     // adapted from https://docs.oracle.com/javase/tutorial/uiswing/components/dialog.html#button
     private void setSemester() {
+        Semester previous = semester;
         Object[] options = {"Create Semester", "Load Semester"};
         int n = JOptionPane.showOptionDialog(this,
                 "Would you like to create a new semester or load an existing semester?",
@@ -508,6 +564,9 @@ public class FlashMemoryGUI extends JFrame {
             loadSemester();
         }
 
+        if (semester != null && semester != previous) {
+            startAutoSave();
+        }
         if (semester != null) {
             setTitle(APP_NAME + " | " + semester.getName());
             semesterNameLabel.setText(semester.getName());
@@ -522,28 +581,26 @@ public class FlashMemoryGUI extends JFrame {
         String semesterName = getStringPopup("Enter a name for your new Semester", "Create Semester", "My Semester");
         if (semesterName != null) {
             semester = new Semester(semesterName);
+            semester.setStringPool(store.newStringPool());
         }
     }
 
     //modifies: this
-    //effects: sets semester by reading from json files in JSON_DIRECTORY, unless user picks cancel.
-    // Notifies user if semester is unable to be read
+    //effects: sets semester by reading from semester files in JSON_DIRECTORY, unless user picks cancel. Semesters are
+    // listed with their sizes from the catalog, without reading them. Notifies user if semester is unable to be read
     private void loadSemester() {
-        // FileNameFilter lambda adapted from https://www.journaldev.com/845/java-filenamefilter-example
-        File f = new File(JSON_DIRECTORY);
-        String[] semesterPaths = f.list((d, s) -> s.toLowerCase().endsWith(".json"));
+        SemesterSummary[] summaries = store.listSummaries().toArray(new SemesterSummary[0]);
 
-        String selectedSemester =
-                (String) JOptionPane.showInputDialog(this, "Select the Semester you want to load.",
-                        "Load Semester", JOptionPane.QUESTION_MESSAGE, null, semesterPaths, 0);
+        SemesterSummary selectedSummary =
+                (SemesterSummary) JOptionPane.showInputDialog(this, "Select the Semester you want to load.",
+                        "Load Semester", JOptionPane.QUESTION_MESSAGE, null, summaries, 0);
 
-        if (selectedSemester != null) {
-            String filepath = JSON_DIRECTORY + selectedSemester;
-            JsonReader reader = new JsonReader(filepath);
+        if (selectedSummary != null) {
+            String selectedSemester = selectedSummary.getName();
             try {
-                semester = reader.read();
+                semester = store.load(selectedSemester);
             } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Unable to load semester:\n" + filepath);
+                JOptionPane.showMessageDialog(this, "Unable to load semester:\n" + store.pathOf(selectedSemester));
             }
         }
     }
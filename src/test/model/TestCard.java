@@ -36,6 +36,25 @@ public class TestCard extends TestStudyMaterial {
         assertEquals(c2.getQuestion(), c2.getName());
     }
 
+    @Test
+    void testLazyAnswer() {
+        int[] loads = {0};
+        Card lazy = new Card("q", Confidence.LOW, () -> {
+            loads[0]++;
+            return "loaded";
+        });
+
+        assertEquals(0, loads[0]);
+        assertEquals("loaded", lazy.getAnswer());
+        assertEquals("loaded", lazy.getAnswer());
+        assertEquals(1, loads[0]);
+        assertEquals(new Card("q", "loaded", Confidence.LOW), lazy);
+
+        Card replaced = new Card("q", Confidence.LOW, () -> "never loaded");
+        replaced.setAnswer("set");
+        assertEquals("set", replaced.getAnswer());
+    }
+
     @Test
     void testEquals() {
         Card c1Clone = new Card("What is the powerhouse of the cell?", "Mitochondria", Confidence.NONE);
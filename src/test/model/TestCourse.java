@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,6 +75,46 @@ public class TestCourse extends TestStudyCollection<Topic> {
     }
 
 
+    @Test
+    void testLazyTopics() {
+        int[] loads = {0};
+        Course lazy = new Course("MICB 201", Confidence.NONE, () -> {
+            loads[0]++;
+            return map1.values();
+        });
+        Semester semester = new Semester("2020W1");
+        semester.addAll(Collections.singletonList(lazy));
+        List<StudyMaterial> added = new ArrayList<>();
+        semester.addListener(new StudyListener() {
+            public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+                added.add(material);
+            }
+
+            public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+            }
+
+            public void nameEdited(StudyMaterial material, String oldName) {
+            }
+
+            public void answerEdited(Card card) {
+            }
+
+            public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+            }
+        });
+
+        assertFalse(lazy.isLoaded());
+        assertEquals(0, loads[0]);
+        assertEquals(5, lazy.size());
+        assertEquals(30, lazy.countCards());
+        assertTrue(lazy.isLoaded());
+        assertEquals(1, loads[0]);
+        assertEquals(lazy, lazy.get("t0").getParent());
+        assertEquals(semester, lazy.get("t0").getSemester());
+        assertEquals(c1, lazy);
+        assertTrue(added.isEmpty());
+    }
+
     @Test
     void testCountCards() {
         assertEquals(30, c1.countCards());
@@ -0,0 +1,98 @@
+package model;
+
+import exceptions.DuplicateElementException;
+import exceptions.NoElementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestScheduler {
+    static final LocalDate DAY = LocalDate.of(2020, 10, 1);
+
+    Semester semester;
+    Topic topic;
+    Card fresh;
+    Card reviewed;
+    Card forgotten;
+
+    @BeforeEach
+    void setUp() throws DuplicateElementException {
+        semester = new Semester("UBC");
+        topic = semester.add("CPSC 210").add("Java");
+        fresh = topic.add("fresh", Confidence.NONE);
+        fresh.setStudyDates(Arrays.asList(DAY));
+        reviewed = topic.add("reviewed", Confidence.HIGH);
+        reviewed.setStudyDates(Arrays.asList(DAY, DAY.minusDays(6), DAY.minusDays(7), DAY.minusDays(8)));
+        forgotten = topic.add("forgotten", Confidence.LOW);
+        forgotten.setStudyDates(Arrays.asList(DAY.minusDays(2), DAY.minusDays(40), DAY.minusDays(50)));
+    }
+
+    @Test
+    void testIntervalModel() {
+        IntervalModel model = IntervalModel.SM2;
+        assertEquals(DAY.toEpochDay(), model.dueEpochDay(fresh));
+        assertEquals(DAY.plusDays(15).toEpochDay(), model.dueEpochDay(reviewed));
+        assertEquals(DAY.minusDays(1).toEpochDay(), model.dueEpochDay(forgotten));
+
+        Card card = new Card("q", "a");
+        card.setStudyDates(Arrays.asList(DAY, DAY.minusDays(1)));
+        assertEquals(DAY.plusDays(1).toEpochDay(), model.dueEpochDay(card));
+        card.trackStudy(DAY.plusDays(1), Confidence.HIGH);
+        assertEquals(DAY.plusDays(7).toEpochDay(), model.dueEpochDay(card));
+        card.setStudyDates(Arrays.asList());
+        assertEquals(Integer.MIN_VALUE, model.dueEpochDay(card));
+    }
+
+    @Test
+    void testNextDue() {
+        Scheduler scheduler = new Scheduler(semester, IntervalModel.SM2);
+        assertEquals(3, scheduler.size());
+        assertEquals(Arrays.asList(forgotten, fresh, reviewed), scheduler.nextDue(5));
+        assertEquals(Arrays.asList(forgotten), scheduler.nextDue(1));
+        assertEquals(Arrays.asList(forgotten, fresh), scheduler.getDue(DAY, 5));
+        assertEquals(DAY.plusDays(15), scheduler.getDueDate(reviewed));
+        assertNull(scheduler.getDueDate(new Card("q", "a")));
+    }
+
+    @Test
+    void testUpdatesIncrementally() throws DuplicateElementException, NoElementException {
+        Scheduler scheduler = new Scheduler(semester, IntervalModel.SM2);
+
+        forgotten.trackStudy(DAY, Confidence.HIGH);
+        assertEquals(DAY.plusDays(5), scheduler.getDueDate(forgotten));
+        assertEquals(Arrays.asList(fresh, forgotten, reviewed), scheduler.nextDue(3));
+
+        Topic added = new Topic("Streams");
+        added.add("new", Confidence.NONE);
+        semester.get("CPSC 210").add(added);
+        assertEquals(4, scheduler.size());
+        assertSame(added.get("new"), scheduler.nextDue(4).get(3));
+
+        topic.remove("fresh");
+        semester.remove("CPSC 210");
+        assertEquals(0, scheduler.size());
+
+        scheduler.close();
+        semester.add("MATH 200").add("Vectors").add("dot", Confidence.LOW);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void testSharedCardKeptUntilRemovedEverywhere() throws DuplicateElementException, NoElementException {
+        Topic other = semester.get("CPSC 210").add("Shared");
+        other.add(reviewed);
+        Scheduler scheduler = new Scheduler(semester, IntervalModel.SM2);
+        assertEquals(3, scheduler.size());
+
+        topic.remove(reviewed);
+        List<Card> due = scheduler.nextDue(3);
+        assertTrue(due.contains(reviewed));
+        other.remove(reviewed);
+        assertFalse(scheduler.nextDue(3).contains(reviewed));
+    }
+}
@@ -1,13 +1,20 @@
 package model;
 
+import exceptions.ModifyException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +67,99 @@ public class TestSemester extends TestStudyCollection<Course> {
         s2.addAll(map2.values());
     }
 
+    @Test
+    void testListeners() throws ModifyException {
+        List<String> events = new ArrayList<>();
+        StudyListener listener = new StudyListener() {
+            public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+                events.add("added " + material.getName() + " to " + parent.getName());
+            }
+
+            public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+                events.add("removed " + material.getName() + " from " + parent.getName());
+            }
+
+            public void nameEdited(StudyMaterial material, String oldName) {
+                events.add("renamed " + oldName + " to " + material.getName());
+            }
+
+            public void answerEdited(Card card) {
+                events.add("answered " + card.getQuestion());
+            }
+
+            public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+                events.add("studied " + material.getName() + " " + confidence);
+            }
+        };
+        Course course = new Course("Biology");
+        Topic topic = course.add("Cells");
+        s1.addListener(listener);
+        s1.addAll(Collections.singletonList(course));
+        assertEquals(s1, topic.getSemester());
+        assertEquals(course, topic.getParent());
+
+        topic.add("q", "a");
+        topic.editCardAnswer("q", "b");
+        topic.get("q").trackStudy(Confidence.HIGH);
+        course.editName("Cells", "Cell Biology");
+        s1.editName("2020W2");
+        s1.remove("Biology");
+        assertNull(course.getParent());
+        s1.removeListener(listener);
+        topic.get("q").trackStudy(Confidence.LOW);
+
+        assertEquals(Arrays.asList(
+                "added Biology to 2020W1",
+                "added q to Cells",
+                "answered q",
+                "studied q HIGH",
+                "renamed Cells to Cell Biology",
+                "renamed 2020W1 to 2020W2",
+                "removed Biology from 2020W2"), events);
+    }
+
+    @Test
+    void testDirtyTracking() throws ModifyException {
+        assertTrue(s1.isDirty());
+        s1.markClean();
+        Course course = s1.get("course0");
+        Topic topic = course.get("t0");
+        Card card = topic.get("q0");
+        assertFalse(s1.isDirty());
+        assertFalse(card.isDirty());
+
+        card.setAnswer("edited");
+        assertTrue(card.isDirty());
+        assertTrue(topic.isDirty());
+        assertTrue(s1.isDirty());
+        assertFalse(s1.get("course1").isDirty());
+
+        s1.markClean();
+        assertFalse(card.isDirty());
+        topic.trackStudy(Confidence.HIGH);
+        assertTrue(course.isDirty());
+        assertFalse(card.isDirty());
+
+        s1.markClean();
+        course.editName("t0", "renamed");
+        assertTrue(topic.isDirty());
+        assertTrue(s1.isDirty());
+
+        s1.markClean();
+        course.remove("renamed");
+        assertTrue(course.isDirty());
+        s1.markClean();
+        course.add("new topic");
+        assertTrue(s1.isDirty());
+
+        s1.markClean();
+        s1.get("course2").setStudyDates(new ArrayList<>());
+        assertTrue(s1.isDirty());
+        s1.markClean();
+        s1.editName("2021W1");
+        assertTrue(s1.isDirty());
+    }
+
     @Test
     void testEditSemesterName() {
         s1.editName("2020W1 Edit");
@@ -95,6 +195,94 @@ public class TestSemester extends TestStudyCollection<Course> {
         });
 
         assertEquals(124, s1.countCards());
+
+        assertDoesNotThrow(() -> {
+            Course course = s1.remove("course2");
+            course.get("t1").remove("new q");
+            assertEquals(124 - course.countCards() - 1, s1.countCards());
+            s1.add(course);
+            s1.get("course3").editName("t1", "renamed");
+        });
+        assertEquals(123, s1.countCards());
+        assertEquals(s1.getAllCards().size(), s1.countCards());
+    }
+
+    @Test
+    void testCachedHash() {
+        Semester clone = new Semester(s1.getName());
+        clone.addAll(s1.getAll().values());
+        int hash = s1.hashCode();
+        int courseHash = s1.get("course1").hashCode();
+        assertEquals(hash, clone.hashCode());
+
+        Card card = s1.get("course1").get("t1").getAllCards().iterator().next();
+        String answer = card.getAnswer();
+        card.setAnswer(answer + "!");
+        assertNotEquals(courseHash, s1.get("course1").hashCode());
+        assertNotEquals(hash, s1.hashCode());
+        assertEquals(s1.hashCode(), clone.hashCode());
+        assertEquals(s1, clone);
+
+        card.setAnswer(answer);
+        assertEquals(courseHash, s1.get("course1").hashCode());
+        assertEquals(hash, s1.hashCode());
+        assertNotEquals(s1, s2);
+    }
+
+    @Test
+    void testLatestStudyCached() throws ModifyException {
+        Card card = s1.get("course1").get("t1").getAllCards().iterator().next();
+        int latest = s1.getLatestStudyEpochDay();
+        assertEquals(LocalDate.now().toEpochDay(), latest);
+
+        card.trackStudy(LocalDate.now().plusDays(3), Confidence.HIGH);
+        assertEquals(LocalDate.now().plusDays(3).toEpochDay(), s1.getLatestStudyEpochDay());
+        assertEquals(LocalDate.now().plusDays(3).toEpochDay(), s1.get("course1").getLatestStudyEpochDay());
+
+        s1.get("course1").get("t1").remove(card);
+        assertEquals(latest, s1.getLatestStudyEpochDay());
+        s1.setStudyEpochDays(new int[0]);
+        assertEquals(latest, s1.getLatestStudyEpochDay());
+        assertEquals(Integer.MIN_VALUE, new Card("q", "a", Confidence.NONE, new int[0]).getLatestStudyEpochDay());
+    }
+
+    @Test
+    void testStreamCards() {
+        Set<Card> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        expected.addAll(s1.getAllCards());
+        assertEquals(s1.countCards(), expected.size());
+
+        assertEquals(s1.countCards(), s1.streamCards().count());
+        assertEquals(s1.countCards(), s1.streamCards().parallel().filter(expected::contains).count());
+        int iterated = 0;
+        for (Card card : s1.get("course1").cards()) {
+            assertSame(s1.get("course1"), card.getParent().getParent());
+            iterated++;
+        }
+        assertEquals(s1.get("course1").countCards(), iterated);
+        assertEquals(0, new Semester("empty").streamCards().count());
+    }
+
+    @Test
+    void testCardSpliteratorSplits() {
+        Spliterator<Card> cards = new CardSpliterator(s1);
+        assertEquals(s1.countCards(), cards.estimateSize());
+        List<Spliterator<Card>> parts = new ArrayList<>(Collections.singletonList(cards));
+        for (int i = 0; i < parts.size() && parts.size() < 64; i++) {
+            Spliterator<Card> prefix = parts.get(i).trySplit();
+            if (prefix != null) {
+                parts.add(prefix);
+                i--;
+            }
+        }
+        assertTrue(parts.size() > s1.size());
+
+        Set<Card> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Spliterator<Card> part : parts) {
+            part.forEachRemaining(card -> assertTrue(seen.add(card)));
+            assertFalse(part.tryAdvance(card -> fail()));
+        }
+        assertEquals(s1.countCards(), seen.size());
     }
 
     @Test
@@ -0,0 +1,83 @@
+package model;
+
+import exceptions.DuplicateElementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSemesterBuilder {
+    static final LocalDate DAY = LocalDate.of(2020, 10, 1);
+
+    SemesterBuilder builder;
+    List<String> duplicates;
+
+    @BeforeEach
+    void setUp() {
+        duplicates = new ArrayList<>();
+        builder = new SemesterBuilder(Clock.fixed(DAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                null, (sc, name) -> duplicates.add(sc.getName() + "/" + name));
+    }
+
+    @Test
+    void testBuildMatchesAdd() throws DuplicateElementException {
+        int[] days = {(int) DAY.minusDays(1).toEpochDay(), (int) DAY.toEpochDay()};
+        Semester built = builder.semester("UBC", null, 1);
+        Course course = builder.course(built, "CPSC 210", Confidence.LOW, days.clone(), 1);
+        Topic topic = builder.topic(course, "Java", Confidence.MEDIUM, null, 2);
+        builder.card(topic, "q0", "a0", Confidence.HIGH, days.clone());
+        builder.card(topic, "q1", "a1", Confidence.NONE, null);
+
+        Semester added = new Semester("UBC");
+        added.setStudyDates(Collections.singletonList(DAY));
+        Course addedCourse = added.add("CPSC 210", Confidence.LOW);
+        addedCourse.setStudyDates(Arrays.asList(DAY, DAY.minusDays(1)));
+        Topic addedTopic = addedCourse.add("Java", Confidence.MEDIUM);
+        addedTopic.setStudyDates(Collections.singletonList(DAY));
+        addedTopic.add(new Card("q0", "a0", Confidence.HIGH));
+        addedTopic.get("q0").setStudyDates(Arrays.asList(DAY, DAY.minusDays(1)));
+        addedTopic.add(new Card("q1", "a1"));
+        addedTopic.get("q1").setStudyDates(Collections.singletonList(DAY));
+
+        assertEquals(added, built);
+        assertEquals(Topic.class, course.subtype);
+        assertEquals(Card.class, topic.subtype);
+        assertSame(built, topic.get("q1").getSemester());
+        assertEquals(2, built.countCards());
+        assertTrue(duplicates.isEmpty());
+    }
+
+    @Test
+    void testDuplicatesReported() {
+        Semester semester = builder.semester("UBC", null, 0);
+        Course course = builder.course(semester, "CPSC 210", Confidence.NONE, null, 0);
+        Topic topic = (Topic) builder.collection(course, "Java", Confidence.NONE, null, 0);
+        Card card = builder.card(topic, "q", "a", Confidence.NONE, null);
+
+        assertNull(builder.collection(semester, "CPSC 210", Confidence.HIGH, null, 0));
+        assertNull(builder.card(topic, "q", "other", Confidence.HIGH, null));
+        assertSame(course, semester.get("CPSC 210"));
+        assertSame(card, topic.get("q"));
+        assertEquals("a", card.getAnswer());
+        assertEquals(Arrays.asList("UBC/CPSC 210", "Java/q"), duplicates);
+    }
+
+    @Test
+    void testDuplicatesWithoutSink() {
+        SemesterBuilder silent = new SemesterBuilder();
+        Topic topic = silent.topic(silent.course(silent.semester("UBC", null, 0), "CPSC 210", Confidence.NONE,
+                null, 0), "Java", Confidence.NONE, null, 0);
+        silent.card(topic, "q", "a", Confidence.NONE, null);
+
+        assertNull(silent.card(topic, "q", "other", Confidence.NONE, null));
+        assertEquals(1, topic.size());
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import exceptions.DuplicateElementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStringPool {
+    StringPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new StringPool();
+    }
+
+    @Test
+    void testIntern() {
+        String first = new String("answer");
+        String copy = new String("answer");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(copy));
+        assertNull(pool.intern(null));
+
+        assertEquals(1, pool.size());
+        assertEquals(3, pool.getRequests());
+        assertEquals(1, pool.getShared());
+        assertEquals(StringPool.sizeOf(copy), pool.getSavedBytes());
+        assertEquals(40, pool.getOverheadBytes());
+        assertEquals(56, StringPool.sizeOf("answer"));
+        assertEquals(40, StringPool.sizeOf(""));
+        assertEquals("Pooled 1 distinct strings; 1 of 3 were repeats sharing a pooled copy, saving about 0 KB for "
+                + "0 KB of pool entries.", pool.toString());
+    }
+
+    @Test
+    void testSetAnswerPooled() throws DuplicateElementException {
+        Semester semester = new Semester("UBC");
+        Topic topic = semester.add("CPSC 210").add("Java");
+        Card pooled = topic.add("q0", Confidence.NONE);
+        Card other = topic.add("q1", Confidence.NONE);
+
+        pooled.setAnswer(new String("same"));
+        other.setAnswer(new String("same"));
+        assertNotSame(pooled.getAnswer(), other.getAnswer());
+
+        semester.setStringPool(pool);
+        assertSame(pool, semester.getStringPool());
+        pooled.setAnswer(new String("same"));
+        other.setAnswer(new String("same"));
+        assertSame(pooled.getAnswer(), other.getAnswer());
+        assertEquals("same", other.getAnswer());
+        assertEquals(1, pool.getShared());
+
+        Card lazy = new Card("q2", Confidence.NONE, () -> new String("same"));
+        topic.add(lazy);
+        assertSame(pooled.getAnswer(), lazy.getAnswer());
+
+        new Card("loose", "a").setAnswer("same");
+        assertEquals(2, pool.getShared());
+    }
+
+    @Test
+    void testBuilderPooled() {
+        SemesterBuilder builder = new SemesterBuilder(Clock.systemDefaultZone(), pool);
+        Semester semester = builder.semester("UBC", null, 1);
+        Topic topic = builder.topic(builder.course(semester, "CPSC 210", Confidence.NONE, null, 1), "Java",
+                Confidence.NONE, null, 2);
+        Card first = builder.card(topic, new String("q0"), new String("same"), Confidence.NONE, null);
+        Card second = builder.card(topic, new String("q1"), new String("same"), Confidence.NONE, null);
+
+        assertSame(pool, semester.getStringPool());
+        assertSame(first.getAnswer(), second.getAnswer());
+        assertEquals(3, pool.size());
+        assertEquals(1, pool.getShared());
+        assertNull(new SemesterBuilder().semester("UBC", null, 0).getStringPool());
+    }
+}
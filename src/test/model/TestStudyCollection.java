@@ -211,6 +211,62 @@ public abstract class TestStudyCollection<M extends StudyMaterial> {
 
     }
 
+    @Test
+    void testPriorityIndex() {
+        SortedSet<M> byPriority = sc1.getByPriority();
+        assertDoesNotThrow(() -> sc1.add(lowPrioritySM));
+        M first = byPriority.first();
+        first.trackStudy(Confidence.HIGH);
+        assertDoesNotThrow(() -> sc1.editName(lowPrioritySM.getName(), "renamed"));
+        lowPrioritySM.setStudyDates(Collections.emptyList());
+
+        List<M> sorted = new ArrayList<>(sc1.getAll().values());
+        Collections.sort(sorted);
+        assertSame(byPriority, sc1.getByPriority());
+        assertEquals(sorted, new ArrayList<>(byPriority));
+        assertEquals(sorted, sc1.getSortedByPriority());
+        assertThrows(UnsupportedOperationException.class, () -> byPriority.remove(first));
+
+        assertDoesNotThrow(() -> sc1.remove(first));
+        assertFalse(byPriority.contains(first));
+        assertEquals(sc1.size(), byPriority.size());
+    }
+
+    @Test
+    void testConfidenceCounts() {
+        assertCounts(sc1);
+
+        assertDoesNotThrow(() -> sc1.add(highPrioritySM));
+        assertCounts(sc1);
+        highPrioritySM.trackStudy(Confidence.LOW);
+        assertCounts(sc1);
+        for (Card card : sc1.getAllCards()) {
+            card.trackStudy(Confidence.MEDIUM);
+        }
+        assertCounts(sc1);
+
+        assertDoesNotThrow(() -> sc1.remove(highPrioritySM));
+        assertCounts(sc1);
+        highPrioritySM.trackStudy(Confidence.HIGH);
+        assertCounts(sc1);
+    }
+
+    //effects: checks the confidence counts of sc against a scan of its materials and cards
+    static void assertCounts(StudyCollection<?> sc) {
+        for (Confidence confidence : Confidence.values()) {
+            int materials = 0;
+            for (StudyMaterial sm : sc.getAll().values()) {
+                materials += sm.getConfidence() == confidence ? 1 : 0;
+            }
+            int cards = 0;
+            for (Card card : sc.getAllCards()) {
+                cards += card.getConfidence() == confidence ? 1 : 0;
+            }
+            assertEquals(materials, sc.countAtConfidence(confidence));
+            assertEquals(cards, sc.countCardsAtConfidence(confidence));
+        }
+    }
+
     @Test
     void testGetSorted() {
         List<M> sorted1 = new ArrayList<>(map1.values());
@@ -221,10 +277,13 @@ public abstract class TestStudyCollection<M extends StudyMaterial> {
         assertEquals(sorted1, sc1.getSortedByPriority());
         assertEquals(sorted2, sc2.getSortedByPriority());
 
+        // lowPrioritySM ties with materials studied today at HIGH, so it is placed among them by name
         sorted1.add(0, highPrioritySM);
         sorted1.add(lowPrioritySM);
+        Collections.sort(sorted1);
         sorted2.add(0, highPrioritySM);
         sorted2.add(lowPrioritySM);
+        Collections.sort(sorted2);
 
         assertDoesNotThrow(() -> {
             sc1.add(highPrioritySM);
@@ -3,10 +3,11 @@ package model;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public abstract class TestStudyMaterial {
     StudyMaterial sm1;
@@ -65,4 +66,30 @@ public abstract class TestStudyMaterial {
         assertEquals(2, dates.size());
         assertTrue(dates.contains(LocalDate.of(2020, 1, 1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStudyHistoryOrder() {
+        StudyMaterial sm = new Card("q", "a");
+        sm.setStudyEpochDays(new int[]{100, 200});
+        for (int i = 1; i <= 1000; i++) {
+            sm.trackStudy(LocalDate.ofEpochDay(200 + i), Confidence.LOW);
+        }
+
+        assertEquals(1002, sm.getTimesStudied());
+        assertEquals(LocalDate.ofEpochDay(1200), sm.getLastStudyDate());
+        assertEquals(1200, sm.getLastStudyEpochDay());
+        List<LocalDate> dates = sm.getStudyDates();
+        assertEquals(LocalDate.ofEpochDay(1199), dates.get(1));
+        assertEquals(LocalDate.ofEpochDay(100), dates.get(1001));
+        assertThrows(UnsupportedOperationException.class, () -> dates.add(LocalDate.now()));
+
+        sm.setStudyDates(Arrays.asList(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 1, 1)));
+        assertEquals(Arrays.asList(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 1, 1)), dates);
+
+        sm.setStudyDates(new ArrayList<>());
+        assertEquals(0, sm.getTimesStudied());
+        assertThrows(IndexOutOfBoundsException.class, sm::getLastStudyDate);
+        sm.trackStudy(LocalDate.of(2020, 3, 1), Confidence.HIGH);
+        assertEquals(LocalDate.of(2020, 3, 1), sm.getLastStudyDate());
+    }
+}
@@ -116,4 +116,78 @@ public class TestTopic extends TestStudyCollection<Card> {
 
         testEqualsClone(clone);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testColumnarScans() {
+        Topic columnar = new Topic("Biology", Confidence.NONE, CardColumns.of(t1.getAll().values()));
+
+        assertFalse(columnar.isLoaded());
+        assertEquals(t1.size(), columnar.size());
+        for (Confidence confidence : Confidence.values()) {
+            assertEquals(t1.countAtConfidence(confidence), columnar.countAtConfidence(confidence));
+            assertEquals(t1.getAtConfidence(confidence), columnar.getAtConfidence(confidence));
+            assertEquals(t1.getBelowConfidence(confidence), columnar.getBelowConfidence(confidence));
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        assertEquals(t1.getLastStudiedBefore(yesterday), columnar.getLastStudiedBefore(yesterday));
+        assertEquals(10, columnar.getLastStudiedBefore(LocalDate.now()).size());
+        assertFalse(columnar.isLoaded());
+
+        assertEquals(t1, columnar);
+        assertTrue(columnar.isLoaded());
+        assertEquals(t1.countAtConfidence(Confidence.LOW), columnar.countAtConfidence(Confidence.LOW));
+    }
+
+    @Test
+    void testColumnarViewsModified() {
+        Semester semester = new Semester("UBC");
+        Course course = new Course("Science");
+        Topic columnar = new Topic("Biology", Confidence.NONE, CardColumns.of(t1.getAll().values()));
+        course.addAll(java.util.Collections.singletonList(columnar));
+        semester.addAll(java.util.Collections.singletonList(course));
+        semester.markClean();
+        CardColumns columns = columnar.toColumns();
+        assertEquals(2, semester.countCardsAtConfidence(Confidence.HIGH));
+        assertFalse(columnar.isLoaded());
+
+        Card card = columnar.getAtConfidence(Confidence.NONE).get("q0");
+        assertEquals("a0", card.getAnswer());
+        card.trackStudy(Confidence.HIGH);
+        assertTrue(semester.isDirty());
+        assertEquals(2, semester.countCardsAtConfidence(Confidence.NONE));
+        assertEquals(3, semester.countCardsAtConfidence(Confidence.HIGH));
+        assertEquals(2, columnar.countAtConfidence(Confidence.NONE));
+        assertEquals(3, columnar.countAtConfidence(Confidence.HIGH));
+        assertSame(card, columnar.getAtConfidence(Confidence.HIGH).get("q0"));
+        assertFalse(columnar.getLastStudiedBefore(LocalDate.now()).containsKey("q0"));
+
+        semester.markClean();
+        assertFalse(card.isDirty());
+        assertFalse(columnar.isLoaded());
+        card.trackStudy(Confidence.LOW);
+        assertTrue(semester.isDirty());
+        card.trackStudy(Confidence.HIGH);
+        assertNotSame(columns, columnar.toColumns());
+
+        assertSame(card, columnar.get("q0"));
+        assertEquals(10, columnar.size());
+        assertEquals(3, columnar.countAtConfidence(Confidence.HIGH));
+    }
+
+    @Test
+    void testToColumns() {
+        CardColumns columns = t1.toColumns();
+        Topic columnar = new Topic("Biology", Confidence.NONE, columns);
+
+        assertEquals(10, columns.size());
+        assertSame(columns, columnar.toColumns());
+        for (int i = 0; i < columns.size(); i++) {
+            Card card = t1.get(columns.getQuestion(i));
+            assertEquals(card.getAnswer(), columns.getAnswer(i));
+            assertEquals(card.getConfidence(), columns.getConfidence(i));
+            assertEquals(card.getStudyDates(), columns.getStudyDates(i));
+            assertEquals(card.getLastStudyDate().toEpochDay(), columns.getLastStudyEpochDay(i));
+        }
+        assertEquals(t1, columnar);
+    }
+}
@@ -0,0 +1,114 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestAutoSaver {
+    static final long DELAY_MILLIS = 200;
+
+    String directory;
+    SemesterStore store;
+    Semester semester;
+    BlockingQueue<Runnable> modelTasks;
+    List<IOException> failures;
+    AutoSaver autoSaver;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        directory = dir.toString() + "/";
+        Files.copy(Paths.get("./data/testLargeSemester.json"), dir.resolve("UBC.json"));
+        store = new SemesterStore(directory);
+        semester = store.load("UBC");
+        modelTasks = new LinkedBlockingQueue<>();
+        failures = new ArrayList<>();
+        autoSaver = new AutoSaver(store, semester, modelTasks::add, DELAY_MILLIS, failures::add);
+    }
+
+    // runs the next task the AutoSaver hands to the model thread, failing if none arrives
+    void runModelTask() throws InterruptedException {
+        Runnable task = modelTasks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(task);
+        task.run();
+    }
+
+    @Test
+    void testSaveNow() throws Exception {
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        autoSaver.saveNow().get();
+
+        assertFalse(semester.isDirty());
+        assertEquals(semester, new SemesterStore(directory).load("UBC"));
+        autoSaver.close();
+    }
+
+    @Test
+    void testModificationsCoalesced() throws Exception {
+        Course course = semester.get("course0");
+        for (int i = 0; i < 10; i++) {
+            course.trackStudy(Confidence.HIGH);
+        }
+        runModelTask();
+        assertFalse(semester.isDirty());
+        assertNull(modelTasks.poll(DELAY_MILLIS * 2, TimeUnit.MILLISECONDS));
+
+        autoSaver.close();
+        assertEquals(semester, new SemesterStore(directory).load("UBC"));
+    }
+
+    @Test
+    void testBurstQueuesOneTimerTask() throws Exception {
+        Course course = semester.get("course0");
+        for (int i = 0; i < 10000; i++) {
+            course.trackStudy(Confidence.HIGH);
+        }
+        assertTrue(autoSaver.pendingTimerTasks() <= 1);
+
+        runModelTask();
+        assertFalse(semester.isDirty());
+        assertEquals(0, autoSaver.pendingTimerTasks());
+        autoSaver.close();
+    }
+
+    @Test
+    void testFailedSaveRecovered() throws Exception {
+        Path journal = Paths.get(directory + "UBC.json" + SemesterJournal.EXTENSION);
+        Files.createDirectory(journal);
+        semester.get("course1").trackStudy(Confidence.LOW);
+
+        assertThrows(ExecutionException.class, () -> autoSaver.saveNow().get());
+        runModelTask();
+        assertEquals(1, failures.size());
+        assertTrue(semester.isDirty());
+
+        runModelTask();
+        autoSaver.close();
+        assertFalse(semester.isDirty());
+        assertFalse(Files.exists(journal));
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+    }
+
+    @Test
+    void testNoSaveAfterClose() throws Exception {
+        autoSaver.close();
+        semester.get("course1").trackStudy(Confidence.LOW);
+
+        assertNull(modelTasks.poll(DELAY_MILLIS * 2, TimeUnit.MILLISECONDS));
+        assertThrows(ExecutionException.class, () -> autoSaver.saveNow().get());
+        assertTrue(semester.isDirty());
+    }
+}
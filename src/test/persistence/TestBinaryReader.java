@@ -0,0 +1,73 @@
+package persistence;
+
+import model.Semester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBinaryReader {
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.fmb");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderNotBinary() {
+        BinaryReader reader = new BinaryReader("./data/testEmptySemester.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderUnsupportedVersion(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("future.fmb");
+        Files.write(file, new byte[]{'F', 'M', 'E', 'M', 99, 0});
+
+        assertThrows(IOException.class, () -> new BinaryReader(file.toString()).read());
+    }
+
+    @Test
+    void testReaderCorrupt(@TempDir Path dir) throws IOException {
+        Path badConfidence = dir.resolve("confidence.fmb");
+        Files.write(badConfidence, new byte[]{'F', 'M', 'E', 'M', 2, 1, 'S', 9, 0, 0});
+        Path negativeLength = dir.resolve("length.fmb");
+        Files.write(negativeLength, new byte[]{'F', 'M', 'E', 'M', 2, -1, -1, -1, -1, 15});
+        Path negativeCount = dir.resolve("count.fmb");
+        Files.write(negativeCount, new byte[]{'F', 'M', 'E', 'M', 2, 1, 'S', 0, 0, -1, -1, -1, -1, 15});
+
+        for (Path file : new Path[]{badConfidence, negativeLength, negativeCount}) {
+            IOException e = assertThrows(IOException.class, () -> new BinaryReader(file.toString()).read());
+            assertTrue(e.getMessage().startsWith("Corrupt semester file"));
+        }
+    }
+
+    @Test
+    void testReaderTruncated(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("semester.json");
+        Path binary = dir.resolve("semester.fmb");
+        Files.copy(Paths.get("./data/UBC2020.json"), json);
+        SemesterConverter.jsonToBinary(json.toString(), binary.toString());
+
+        byte[] bytes = Files.readAllBytes(binary);
+        Files.write(binary, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> new BinaryReader(binary.toString()).read());
+    }
+
+    @Test
+    void testReaderEmptySemester(@TempDir Path dir) throws IOException {
+        String binary = dir.resolve("empty.fmb").toString();
+        SemesterConverter.jsonToBinary("./data/testEmptySemester.json", binary);
+
+        Semester semester = new BinaryReader(binary).read();
+        assertEquals("UBC2020W1", semester.getName());
+        assertEquals(0, semester.size());
+    }
+}
@@ -0,0 +1,67 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBinaryWriter {
+    Semester semester;
+
+    @BeforeEach
+    void setUp() {
+        semester = new Semester("UBC");
+        List<LocalDate> creationDate = new ArrayList<>();
+        creationDate.add(LocalDate.of(2020, 1, 1));
+        semester.setStudyDates(creationDate);
+        semester.addAll(TestSemester.makeTestCourses(2, 3, 4, 1).values());
+
+        Card card = semester.get("course0").get("t0").get("q0");
+        card.setAnswer("énzyme 😀");
+        card.trackStudy(LocalDate.of(1960, 5, 4), Confidence.LOW);
+        card.trackStudy(LocalDate.of(2021, 5, 4), Confidence.HIGH);
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        BinaryWriter writer = new BinaryWriter("./data/my\0illegal:fileName.fmb");
+        assertThrows(IOException.class, writer::open);
+    }
+
+    @Test
+    void testWriterRoundTrip(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("semester.fmb").toString();
+        BinaryWriter writer = new BinaryWriter(path);
+        writer.open();
+        writer.write(semester);
+        writer.close();
+
+        Semester parsed = new BinaryReader(path).read();
+        assertEquals(semester, parsed);
+        assertEquals(24, parsed.countCards());
+        assertEquals(LocalDate.of(2021, 5, 4),
+                parsed.get("course0").get("t0").get("q0").getLastStudyDate());
+        assertEquals(semester.get("course0").get("t0").get("q0").getStudyDates(),
+                parsed.get("course0").get("t0").get("q0").getStudyDates());
+    }
+
+    @Test
+    void testWriterEmptySemester(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("empty.fmb").toString();
+        Semester empty = new Semester("Empty");
+        BinaryWriter writer = new BinaryWriter(path);
+        writer.open();
+        writer.write(empty);
+        writer.close();
+
+        assertEquals(empty, new BinaryReader(path).read());
+    }
+}
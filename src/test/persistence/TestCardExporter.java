@@ -0,0 +1,60 @@
+package persistence;
+
+import exceptions.DuplicateElementException;
+import model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCardExporter {
+    @Test
+    void testExportTopicCsv(@TempDir Path dir) throws IOException, DuplicateElementException {
+        Topic topic = new Topic("json");
+        topic.add("what is \"json\"", "a format,\nfor data");
+        topic.get("what is \"json\"").setStudyDates(
+                Arrays.asList(LocalDate.of(2020, 11, 2), LocalDate.of(2020, 10, 1)));
+        topic.add("what is a key", Confidence.HIGH).setStudyDates(Arrays.asList());
+        Path csv = dir.resolve("cards.csv");
+
+        assertEquals(2, new CardExporter(csv.toString()).export(topic));
+        String text = new String(Files.readAllBytes(csv), StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("path,question,answer,confidence,timesStudied,lastStudied\n"));
+        assertTrue(text.contains("json,\"what is \"\"json\"\"\",\"a format,\nfor data\",NONE,2,2020-11-02\n"));
+        assertTrue(text.contains("json,what is a key,,HIGH,0,\n"));
+    }
+
+    @Test
+    void testExportSemesterTsv(@TempDir Path dir) throws IOException {
+        Semester semester = new JsonReader("./data/testLargeSemester.json").read();
+        Path tsv = dir.resolve("cards.tsv");
+
+        assertEquals(semester.countCards(), new CardExporter(tsv.toString()).export(semester));
+        List<String> lines = Files.readAllLines(tsv, StandardCharsets.UTF_8);
+        assertEquals(semester.countCards() + 1, lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split("\t", -1);
+            assertEquals(6, fields.length);
+            String[] path = fields[0].split(String.valueOf(CardExporter.PATH_SEPARATOR));
+            Card card = semester.get(path[1]).get(path[2]).get(fields[1]);
+            assertEquals(semester.getName(), path[0]);
+            assertEquals(card.getAnswer(), fields[2]);
+            assertEquals(card.getTimesStudied(), Integer.parseInt(fields[4]));
+        }
+    }
+
+    @Test
+    void testExportInvalidFile(@TempDir Path dir) {
+        Topic topic = new Topic("json");
+        assertThrows(IOException.class, () -> new CardExporter(dir.resolve("missing/cards.csv").toString())
+                .export(topic));
+    }
+}
@@ -0,0 +1,143 @@
+package persistence;
+
+import exceptions.DuplicateElementException;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCardImporter {
+    Path dir;
+    Semester semester;
+    Topic existing;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws DuplicateElementException {
+        this.dir = dir;
+        semester = new Semester("UBC");
+        existing = semester.add("cpsc210").add("json");
+        existing.add("what is json", "a format");
+    }
+
+    @Test
+    void testImportCsv() throws IOException {
+        String csv = write("cards.csv", "course,topic,question,answer,confidence\n"
+                + "cpsc210,json,what is org.json,a library,high\n"
+                + "cpsc210,\"ui, swing\",\"what is a \"\"JFrame\"\"\",\"a window\r\nwith a frame\",\r\n"
+                + "math200,limits,what is a limit,a value,LOW\n");
+        ImportReport report = new CardImporter(csv).importInto(semester);
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getDuplicates());
+        assertEquals(0, report.getMalformed());
+        assertEquals(Confidence.HIGH, existing.get("what is org.json").getConfidence());
+        Card frame = semester.get("cpsc210").get("ui, swing").get("what is a \"JFrame\"");
+        assertEquals("a window\nwith a frame", frame.getAnswer());
+        assertEquals(Confidence.NONE, frame.getConfidence());
+        assertEquals(Confidence.LOW, semester.get("math200").get("limits").get("what is a limit").getConfidence());
+        assertSame(semester, semester.get("math200").get("limits").getSemester());
+    }
+
+    @Test
+    void testImportTsv() throws IOException {
+        String tsv = write("cards.tsv", "cpsc210\tjson\twhat is a key\ta string, in quotes\n");
+        ImportReport report = new CardImporter(tsv).importInto(semester);
+
+        assertEquals(1, report.getImported());
+        assertEquals("a string, in quotes", existing.get("what is a key").getAnswer());
+    }
+
+    @Test
+    void testDuplicatesAndMalformedReported() throws IOException {
+        String csv = write("cards.csv", "cpsc210,json,what is json,again\n"
+                + "cpsc210,json,new,first\n"
+                + "cpsc210,json,new,second\n"
+                + "\n"
+                + "too,few,fields\n"
+                + "cpsc210,,no topic,answer\n"
+                + "cpsc210,json,bad confidence,answer,sure\n");
+        ImportReport report = new CardImporter(csv).importInto(semester);
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(3, report.getMalformed());
+        assertEquals("a format", existing.get("what is json").getAnswer());
+        assertEquals("first", existing.get("new").getAnswer());
+        assertEquals("line 1: cpsc210/json/what is json", report.getDuplicateExamples().get(0));
+        assertEquals("line 3: cpsc210/json/new", report.getDuplicateExamples().get(1));
+        assertEquals("line 5: expected 4 or 5 fields", report.getMalformedExamples().get(0));
+        assertEquals("line 7: unknown confidence sure", report.getMalformedExamples().get(2));
+        assertFalse(semester.get("cpsc210").contains("too"));
+    }
+
+    @Test
+    void testExamplesBounded() throws IOException {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < ImportReport.MAX_EXAMPLES + 5; i++) {
+            rows.append("malformed\n");
+        }
+        ImportReport report = new CardImporter(write("cards.csv", rows.toString())).importInto(semester);
+
+        assertEquals(ImportReport.MAX_EXAMPLES + 5, report.getMalformed());
+        assertEquals(ImportReport.MAX_EXAMPLES, report.getMalformedExamples().size());
+        assertTrue(report.toString().endsWith("and 5 more"));
+    }
+
+    @Test
+    void testNewMaterialsAddedOnce() throws IOException {
+        int[] added = new int[1];
+        semester.addListener(new StudyListener() {
+            @Override
+            public void materialAdded(StudyCollection<?> parent, StudyMaterial material) {
+                added[0]++;
+            }
+
+            @Override
+            public void materialRemoved(StudyCollection<?> parent, StudyMaterial material) {
+            }
+
+            @Override
+            public void nameEdited(StudyMaterial material, String oldName) {
+            }
+
+            @Override
+            public void answerEdited(Card card) {
+            }
+
+            @Override
+            public void studied(StudyMaterial material, LocalDate date, Confidence confidence) {
+            }
+        });
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            rows.append("course").append(i % 3).append(",topic").append(i % 7).append(",q").append(i).append(",a\n");
+        }
+        ImportReport report = new CardImporter(write("cards.csv", rows.toString())).importInto(semester);
+
+        assertEquals(10000, report.getImported());
+        assertEquals(3, added[0]);
+        assertEquals(10000, semester.countCards() - 1);
+        assertTrue(semester.isDirty());
+    }
+
+    @Test
+    void testMissingFile() {
+        assertThrows(IOException.class, () -> new CardImporter(dir.resolve("missing.csv").toString())
+                .importInto(semester));
+        assertEquals(1, semester.countCards());
+    }
+
+    String write(String name, String text) throws IOException {
+        Path path = dir.resolve(name);
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path.toString();
+    }
+}
@@ -1,11 +1,18 @@
 package persistence;
 
+import exceptions.NoElementException;
 import model.*;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 
@@ -108,4 +115,72 @@ class TestJsonReader {
 
         assertEquals(1, t.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReaderLegacyFormat(@TempDir Path dir) throws IOException {
+        String legacy = "./data/testLegacySemester.json";
+        assertFalse(new String(Files.readAllBytes(Paths.get(legacy)), StandardCharsets.UTF_8)
+                .contains("\"" + JsonFormat.VERSION_KEY + "\""));
+        Semester parsed = new JsonReader(legacy).read();
+        assertEquals(24, parsed.countCards());
+        assertEquals(LocalDate.of(2020, 1, 1), parsed.getLastStudyDate());
+
+        String path = dir.resolve("rewritten.json").toString();
+        JsonWriter writer = new JsonWriter(path);
+        writer.open();
+        writer.write(parsed);
+        writer.close();
+        assertEquals(parsed, new JsonReader(path).read());
+    }
+
+    @Test
+    void testParallelRead(@TempDir Path dir) throws IOException {
+        Semester semester = new Semester("UBC");
+        semester.setStudyDates(Collections.singletonList(LocalDate.of(2020, 1, 1)));
+        semester.addAll(TestSemester.makeTestCourses(12, 6, 8, 1).values());
+        String path = dir.resolve("parallel.json").toString();
+        JsonStreamWriter writer = new JsonStreamWriter(path);
+        writer.open();
+        writer.write(semester);
+        writer.close();
+
+        assertEquals(semester, new JsonReader(path, true).read());
+        assertEquals(new JsonReader("./data/testLargeSemester.json").read(),
+                new JsonReader("./data/testLargeSemester.json", true).read());
+    }
+
+    @Test
+    void testParallelReadMergesDuplicates(@TempDir Path dir) throws IOException, NoElementException {
+        String path = dir.resolve("duplicates.json").toString();
+        String json = "{\"name\": \"UBC\", \"confidence\": \"NONE\", \"studyDates\": [], \"materialMap\": ["
+                + course("bio", "[18262]", topic("cells", "q0") + "," + topic("dna", "q1")) + ","
+                + course("chem", "[]", topic("acids", "q2")) + ","
+                + course("bio", "[18263]", topic("cells", "q3")) + "]}";
+        Files.write(Paths.get(path), json.getBytes(StandardCharsets.UTF_8));
+
+        Semester parsed = new JsonReader(path, true).read();
+        assertEquals(new JsonReader(path).read(), parsed);
+        assertEquals(2, parsed.size());
+        assertEquals(LocalDate.of(2020, 1, 2), parsed.get("bio").getLastStudyDate());
+        assertEquals(2, parsed.get("bio").get("cells").size());
+        assertEquals(parsed, parsed.get("bio").get("cells").getSemester());
+
+        Course chem = parsed.get("chem");
+        parsed.remove(chem);
+        assertNull(chem.getSemester());
+        assertNull(chem.getParent());
+    }
+
+    // effects: returns JSON of course with studyDates and topics
+    private String course(String name, String studyDates, String topics) {
+        return "{\"name\": \"" + name + "\", \"confidence\": \"LOW\", \"studyDates\": " + studyDates
+                + ", \"materialMap\": [" + topics + "]}";
+    }
+
+    // effects: returns JSON of topic holding one card with question
+    private String topic(String name, String question) {
+        return "{\"name\": \"" + name + "\", \"confidence\": \"LOW\", \"studyDates\": [], \"materialMap\": ["
+                + "{\"name\": \"" + question + "\", \"confidence\": \"HIGH\", \"studyDates\": [], "
+                + "\"answer\": \"a\"}]}";
+    }
+}
@@ -0,0 +1,106 @@
+package persistence;
+
+import model.*;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestJsonStreamReader {
+    @Test
+    void testReaderNonExistentFile() {
+        JsonStreamReader reader = new JsonStreamReader("./data/noSuchFile.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderEmptySemester() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testEmptySemester.json");
+        Semester semester = assertDoesNotThrow(reader::read);
+
+        assertEquals("UBC2020W1", semester.getName());
+        assertEquals(Confidence.NONE, semester.getConfidence());
+        assertEquals(0, semester.size());
+        assertEquals(LocalDate.of(2020, 1, 1), semester.getLastStudyDate());
+    }
+
+    @Test
+    void testReaderMatchesJsonReader() {
+        for (String source : new String[]{"./data/UBC2020.json", "./data/testLargeSemester.json",
+                "./data/testLegacySemester.json"}) {
+            Semester expected = assertDoesNotThrow(() -> new JsonReader(source).read());
+            Semester streamed = assertDoesNotThrow(() -> new JsonStreamReader(source).read());
+
+            assertEquals(expected, streamed);
+            assertEquals(expected.countCards(), streamed.countCards());
+        }
+    }
+
+    @Test
+    void testReaderEscapesAndUnknownFields(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("escapes.json");
+        String json = "{\"extra\": [1, {\"a\": null}, true], \"name\": \"S\", \"confidence\": \"NONE\","
+                + "\"studyDates\": [{\"year\": 2020, \"month\": 2, \"day\": 3}],"
+                + "\"materialMap\": [{\"materialMap\": [{\"name\": \"T\", \"confidence\": \"LOW\", \"studyDates\": [],"
+                + "\"materialMap\": [{\"name\": \"q \\\"1\\\"\", \"answer\": \"line\\nnext \\u00e9\","
+                + "\"confidence\": \"HIGH\", \"studyDates\": [{\"day\": 9, \"month\": 12, \"year\": 2019}]}]}],"
+                + "\"name\": \"C\", \"confidence\": \"MEDIUM\", \"studyDates\": []}]}";
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+
+        Semester semester = new JsonStreamReader(file.toString()).read();
+        Card card = semester.get("C").get("T").get("q \"1\"");
+
+        assertEquals(Confidence.MEDIUM, semester.get("C").getConfidence());
+        assertEquals("line\nnext \u00e9", card.getAnswer());
+        assertEquals(Confidence.HIGH, card.getConfidence());
+        assertEquals(LocalDate.of(2019, 12, 9), card.getLastStudyDate());
+    }
+
+    @Test
+    void testReaderMergesDuplicates(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("duplicates.json");
+        String json = "{\"name\": \"UBC\", \"confidence\": \"NONE\", \"studyDates\": [], \"materialMap\": ["
+                + course("bio", "[18262]", topic("cells", "q0", "a0") + "," + topic("dna", "q1", "a1")) + ","
+                + course("chem", "[]", topic("acids", "q2", "a2")) + ","
+                + course("bio", "[18263]", topic("cells", "q3", "a3") + "," + topic("cells", "q0", "edited")) + "]}";
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+
+        Semester streamed = new JsonStreamReader(file.toString()).read();
+        Topic cells = streamed.get("bio").get("cells");
+        assertEquals(new JsonReader(file.toString()).read(), streamed);
+        assertEquals(LocalDate.of(2020, 1, 2), streamed.get("bio").getLastStudyDate());
+        assertEquals(2, cells.size());
+        assertEquals("edited", cells.get("q0").getAnswer());
+        assertSame(streamed, cells.get("q3").getSemester());
+        assertSame(cells, cells.get("q3").getParent());
+        assertEquals(4, streamed.countCards());
+    }
+
+    @Test
+    void testReaderMissingField(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("missing.json");
+        Files.write(file, "{\"name\": \"S\", \"materialMap\": []}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(JSONException.class, () -> new JsonStreamReader(file.toString()).read());
+    }
+
+    // effects: returns JSON of course with studyDates and topics
+    private String course(String name, String studyDates, String topics) {
+        return "{\"name\": \"" + name + "\", \"confidence\": \"LOW\", \"studyDates\": " + studyDates
+                + ", \"materialMap\": [" + topics + "]}";
+    }
+
+    // effects: returns JSON of topic holding one card with question and answer
+    private String topic(String name, String question, String answer) {
+        return "{\"name\": \"" + name + "\", \"confidence\": \"LOW\", \"studyDates\": [], \"materialMap\": "
+                + "[{\"name\": \"" + question + "\", \"answer\": \"" + answer + "\", \"confidence\": \"HIGH\","
+                + " \"studyDates\": [18262]}]}";
+    }
+}
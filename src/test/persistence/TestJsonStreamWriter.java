@@ -0,0 +1,146 @@
+package persistence;
+
+import model.*;
+import org.json.JSONException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestJsonStreamWriter {
+    Semester semester;
+
+    @BeforeEach
+    void setUp() {
+        semester = new Semester("UBC");
+        List<LocalDate> creationDate = new ArrayList<>();
+        creationDate.add(LocalDate.of(2020, 1, 1));
+        semester.setStudyDates(creationDate);
+        semester.addAll(TestSemester.makeTestCourses(2, 3, 4, 1).values());
+        semester.get("course0").get("t0").editCardAnswer("q0", "quote \" slash \\ line\n");
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        JsonStreamWriter writer = new JsonStreamWriter("./data/my\0illegal:fileName.json");
+        assertThrows(IOException.class, writer::open);
+    }
+
+    @Test
+    void testWriterIndented(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("indented.json").toString();
+        write(new JsonStreamWriter(path));
+
+        assertEquals(semester, new JsonReader(path).read());
+        assertEquals(semester, new JsonStreamReader(path).read());
+        assertTrue(readText(path).contains("\n    \"name\": \"UBC\""));
+    }
+
+    @Test
+    void testWriterCompact(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("compact.json").toString();
+        write(new JsonStreamWriter(path, true));
+
+        assertEquals(semester, new JsonReader(path).read());
+        assertEquals(semester, new JsonStreamReader(path).read());
+        assertFalse(readText(path).contains("\n"));
+        assertFalse(readText(path).contains(" \"name\""));
+    }
+
+    @Test
+    void testWriterEmptySemester(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("empty.json").toString();
+        semester = new Semester("Empty");
+        write(new JsonStreamWriter(path));
+
+        Semester parsed = new JsonStreamReader(path).read();
+        assertEquals(semester, parsed);
+        assertEquals(0, parsed.size());
+    }
+
+    @Test
+    void testWriterEpochDayDates(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("dates.json").toString();
+        semester.get("course0").setStudyDates(Arrays.asList(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 3)));
+        write(new JsonStreamWriter(path));
+
+        String text = readText(path);
+        assertTrue(text.contains("\"version\": " + JsonFormat.VERSION));
+        assertTrue(text.contains("\"studyDates\": [18262]"));
+        assertTrue(text.contains("\"studyDates\": [18262, 2]"));
+        assertEquals(semester, new JsonReader(path).read());
+        assertEquals(semester, new JsonStreamReader(path).read());
+    }
+
+    @Test
+    void testWriterSmallerThanLegacyFormat(@TempDir Path dir) throws IOException {
+        String legacy = "./data/testLegacySemester.json";
+        String path = dir.resolve("large.json").toString();
+        semester = new JsonStreamReader(legacy).read();
+        write(new JsonStreamWriter(path));
+
+        assertEquals(semester, new JsonReader(path).read());
+        assertEquals(semester, new JsonStreamReader(path).read());
+        assertTrue(Files.size(Paths.get(path)) * 2 < Files.size(Paths.get(legacy)));
+    }
+
+    @Test
+    void testWriterCompressed(@TempDir Path dir) throws IOException {
+        String plain = dir.resolve("plain.json").toString();
+        String fastest = dir.resolve("fastest.json.gz").toString();
+        String smallest = dir.resolve("smallest.json.gz").toString();
+        semester.addAll(TestSemester.makeTestCourses(10, 5, 20, 1).values());
+        write(new JsonStreamWriter(plain));
+        write(new JsonStreamWriter(fastest, false, Deflater.BEST_SPEED));
+        write(new JsonStreamWriter(smallest, false, Deflater.BEST_COMPRESSION));
+
+        byte[] header = Files.readAllBytes(Paths.get(smallest));
+        assertEquals((byte) 0x1f, header[0]);
+        assertEquals((byte) 0x8b, header[1]);
+        assertEquals(semester, new JsonReader(smallest).read());
+        assertEquals(semester, new JsonStreamReader(smallest).read());
+        assertEquals(semester, new JsonStreamReader(fastest).read());
+        assertTrue(Files.size(Paths.get(smallest)) <= Files.size(Paths.get(fastest)));
+        assertTrue(Files.size(Paths.get(fastest)) * 5 < Files.size(Paths.get(plain)));
+    }
+
+    @Test
+    void testWriterInvalidCompressionLevel() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonStreamWriter("semester.json.gz", false, 10));
+    }
+
+    @Test
+    void testReaderNewerVersion(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("future.json").toString();
+        String json = "{\"version\": 3, \"name\": \"UBC\", \"confidence\": \"NONE\", "
+                + "\"studyDates\": [], \"materialMap\": []}";
+        Files.write(Paths.get(path), json.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(JSONException.class, () -> new JsonReader(path).read());
+        assertThrows(JSONException.class, () -> new JsonStreamReader(path).read());
+    }
+
+    // effects: writes semester with writer
+    private void write(JsonStreamWriter writer) throws IOException {
+        writer.open();
+        writer.write(semester);
+        writer.close();
+    }
+
+    // effects: returns contents of file at path
+    private String readText(String path) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMappedSemesterReader {
+    String binary;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        binary = dir.resolve("semester.fmb").toString();
+        SemesterConverter.jsonToBinary("./data/testLargeSemester.json", binary);
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        MappedSemesterReader reader = new MappedSemesterReader("./data/noSuchFile.fmb");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderNotBinary() {
+        MappedSemesterReader reader = new MappedSemesterReader("./data/testEmptySemester.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderTruncated(@TempDir Path dir) throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(binary));
+        Path truncated = dir.resolve("truncated.fmb");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> new MappedSemesterReader(truncated.toString()).read());
+    }
+
+    @Test
+    void testReaderCorrupt(@TempDir Path dir) throws IOException {
+        Path badConfidence = dir.resolve("confidence.fmb");
+        Files.write(badConfidence, new byte[]{'F', 'M', 'E', 'M', 2, 1, 'S', 9, 0, 0});
+        Path negativeLength = dir.resolve("length.fmb");
+        Files.write(negativeLength, new byte[]{'F', 'M', 'E', 'M', 2, -1, -1, -1, -1, 15});
+
+        for (Path file : new Path[]{badConfidence, negativeLength}) {
+            assertThrows(IOException.class, () -> new MappedSemesterReader(file.toString()).read());
+        }
+    }
+
+    @Test
+    void testReaderMatchesBinaryReader() throws IOException {
+        Semester expected = new BinaryReader(binary).read();
+        Semester mapped = new MappedSemesterReader(binary).read();
+
+        assertEquals(expected.countCards(), mapped.countCards());
+        assertEquals(expected, mapped);
+    }
+
+    @Test
+    void testCardsLoadLazily() throws IOException {
+        Semester expected = new BinaryReader(binary).read();
+        Semester mapped = new MappedSemesterReader(binary).read();
+        Topic topic = mapped.get("course0").get("t0");
+        Card expectedCard = expected.get("course0").get("t0").get("q0");
+
+        assertFalse(topic.isLoaded());
+        assertEquals(expected.get("course0").get("t0").size(), topic.size());
+        Card card = topic.getBelowConfidence(Confidence.HIGH).get("q0");
+        assertFalse(topic.isLoaded());
+        assertEquals(expectedCard.getLastStudyDate(), card.getLastStudyDate());
+        assertEquals(expectedCard.getTimesStudied(), card.getTimesStudied());
+        assertEquals(expectedCard.getAnswer(), card.getAnswer());
+
+        card.trackStudy(LocalDate.of(2021, 1, 1), Confidence.HIGH);
+        assertEquals(expectedCard.getTimesStudied() + 1, card.getTimesStudied());
+        assertEquals(LocalDate.of(2021, 1, 1), card.getLastStudyDate());
+        assertEquals(expectedCard.getStudyDates(), card.getStudyDates().subList(1, card.getTimesStudied()));
+        assertSame(card, topic.get("q0"));
+        assertTrue(topic.isLoaded());
+    }
+
+    @Test
+    void testReadLegacyVersion(@TempDir Path dir) throws IOException {
+        Path legacy = dir.resolve("legacy.fmb");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(legacy))) {
+            out.write(BinaryFormat.MAGIC);
+            out.writeByte(BinaryFormat.LEGACY_VERSION);
+            writeLegacyNode(out, "UBC", 1);
+            writeLegacyNode(out, "course", 1);
+            writeLegacyNode(out, "topic", 1);
+            writeLegacyNode(out, "question", -1);
+            BinaryFormat.writeString(out, "answer");
+        }
+        Semester semester = new MappedSemesterReader(legacy.toString()).read();
+        Card card = semester.get("course").get("topic").get("question");
+
+        assertEquals(1, card.getTimesStudied());
+        assertEquals(LocalDate.of(2020, 10, 1), card.getLastStudyDate());
+        assertEquals(Confidence.LOW, card.getConfidence());
+        assertEquals("answer", card.getAnswer());
+        assertEquals(semester, new BinaryReader(legacy.toString()).read());
+    }
+
+    // writes the fields of a version 1 node studied once on 2020-10-01 at LOW confidence, followed by its
+    // sub-material count unless it is a card (size < 0)
+    void writeLegacyNode(DataOutputStream out, String name, int size) throws IOException {
+        BinaryFormat.writeString(out, name);
+        out.writeByte(Confidence.LOW.ordinal());
+        BinaryFormat.writeVarInt(out, 1);
+        BinaryFormat.writeVarInt(out, BinaryFormat.zigZag((int) LocalDate.of(2020, 10, 1).toEpochDay()));
+        if (size >= 0) {
+            BinaryFormat.writeVarInt(out, size);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package persistence;
+
+import model.Semester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSemesterConverter {
+    @Test
+    void testRoundTripParity(@TempDir Path dir) throws IOException {
+        for (String source : new String[]{"./data/UBC2020.json", "./data/testLargeSemester.json",
+                "./data/testLegacySemester.json"}) {
+            String binary = dir.resolve("semester.fmb").toString();
+            String json = dir.resolve("semester.json").toString();
+
+            Semester original = new JsonReader(source).read();
+            assertEquals(original, SemesterConverter.jsonToBinary(source, binary));
+            assertEquals(original, new BinaryReader(binary).read());
+            assertEquals(original, SemesterConverter.binaryToJson(binary, json));
+            assertEquals(original, new JsonReader(json).read());
+        }
+    }
+
+    @Test
+    void testCompressJson(@TempDir Path dir) throws IOException {
+        String compressed = dir.resolve("semester.json.gz").toString();
+        Semester original = new JsonReader("./data/testLegacySemester.json").read();
+
+        assertEquals(original, SemesterConverter.compressJson("./data/testLegacySemester.json", compressed, 9));
+        assertEquals(original, new JsonStreamReader(compressed).read());
+        assertTrue(Files.size(Paths.get(compressed)) * 10 < Files.size(Paths.get("./data/testLegacySemester.json")));
+    }
+
+    @Test
+    void testBinarySmallerThanJson(@TempDir Path dir) throws IOException {
+        String binary = dir.resolve("semester.fmb").toString();
+        SemesterConverter.jsonToBinary("./data/testLegacySemester.json", binary);
+
+        long jsonSize = Files.size(Paths.get("./data/testLegacySemester.json"));
+        assertTrue(Files.size(Paths.get(binary)) * 5 < jsonSize);
+    }
+}
@@ -0,0 +1,123 @@
+package persistence;
+
+import exceptions.ModifyException;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSemesterJournal {
+    String snapshot;
+    Path journalPath;
+    Semester semester;
+    SemesterJournal journal;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        snapshot = dir.resolve("UBC.json").toString();
+        journalPath = Paths.get(snapshot + SemesterJournal.EXTENSION);
+        Files.copy(Paths.get("./data/testLargeSemester.json"), Paths.get(snapshot));
+        semester = new JsonReader(snapshot).read();
+        journal = new SemesterJournal(snapshot);
+        semester.addListener(journal);
+    }
+
+    @Test
+    void testReplay() throws IOException, ModifyException {
+        Topic topic = semester.get("course0").get("t0");
+        topic.editCardAnswer("q0", "edited");
+        topic.add("new question", "new answer");
+        topic.get("q1").trackStudy(LocalDate.of(2020, 11, 1), Confidence.HIGH);
+        topic.remove("q2");
+        semester.get("course1").editName("t1", "renamed");
+        Course course = new Course("new course", Confidence.LOW);
+        course.add("new topic");
+        semester.addAll(java.util.Collections.singletonList(course));
+
+        assertEquals(6, journal.size());
+        assertFalse(Files.exists(journalPath));
+        journal.flush();
+        assertTrue(Files.exists(journalPath));
+        assertEquals(6, journal.size());
+
+        assertEquals(semester, new JsonReader(snapshot).read());
+        assertEquals(semester, new JsonStreamReader(snapshot).read());
+    }
+
+    @Test
+    void testUnflushedNotReplayed() throws IOException {
+        Semester original = new JsonReader(snapshot).read();
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+
+        assertEquals(1, journal.size());
+        assertEquals(original, new JsonReader(snapshot).read());
+    }
+
+    @Test
+    void testContinueExistingJournal() throws IOException {
+        semester.get("course0").trackStudy(Confidence.MEDIUM);
+        journal.flush();
+
+        SemesterJournal reopened = new SemesterJournal(snapshot);
+        assertEquals(1, reopened.size());
+        assertEquals(snapshot, reopened.getSnapshotPath());
+
+        reopened.clear();
+        assertEquals(0, reopened.size());
+        assertFalse(Files.exists(journalPath));
+    }
+
+    @Test
+    void testStaleJournalIgnored() throws IOException {
+        Semester original = new JsonReader(snapshot).read();
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        journal.flush();
+
+        Files.setLastModifiedTime(Paths.get(snapshot), FileTime.fromMillis(0));
+        assertEquals(0, SemesterJournal.replay(snapshot, original));
+        assertEquals(original, new JsonReader(snapshot).read());
+
+        assertEquals(0, new SemesterJournal(snapshot).size());
+        assertFalse(Files.exists(journalPath));
+    }
+
+    @Test
+    void testIncompleteEntryTrimmed() throws IOException {
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        journal.flush();
+        Files.write(journalPath, "{\"op\":\"trackStu".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(semester, new JsonReader(snapshot).read());
+
+        SemesterJournal reopened = new SemesterJournal(snapshot);
+        assertEquals(1, reopened.size());
+        semester.removeListener(journal);
+        semester.addListener(reopened);
+        semester.get("course1").trackStudy(Confidence.HIGH);
+        reopened.flush();
+
+        assertEquals(semester, new JsonReader(snapshot).read());
+    }
+
+    @Test
+    void testMissingTargetSkipped() throws IOException, ModifyException {
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        semester.get("course0").remove("t0");
+        semester.get("course1").trackStudy(Confidence.HIGH);
+        journal.flush();
+
+        assertEquals(3, SemesterJournal.replay(snapshot, new JsonReader(snapshot).read()));
+        assertEquals(semester, new JsonReader(snapshot).read());
+    }
+}
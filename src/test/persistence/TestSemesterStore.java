@@ -0,0 +1,331 @@
+package persistence;
+
+import exceptions.ModifyException;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSemesterStore {
+    String directory;
+    SemesterStore store;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        directory = dir.toString() + "/";
+        store = new SemesterStore(directory);
+        Files.copy(Paths.get("./data/testLargeSemester.json"), dir.resolve("UBC.json"));
+    }
+
+    @Test
+    void testLoadMissing() {
+        assertThrows(IOException.class, () -> store.load("missing"));
+        assertEquals(directory + "missing.json", store.pathOf("missing"));
+    }
+
+    @Test
+    void testLoadAndSaveJson() throws IOException {
+        Semester semester = store.load("UBC");
+        assertEquals(new JsonReader(directory + "UBC.json").read(), semester);
+
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        store.save(semester);
+
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+        assertFalse(Files.exists(Paths.get(directory + "UBC.json.tmp")));
+    }
+
+    @Test
+    void testSaveNewSemester() throws IOException {
+        Semester semester = new Semester("New");
+        store.save(semester);
+
+        assertEquals(directory + "New.json", store.pathOf("New"));
+        assertEquals(semester, store.load("New"));
+    }
+
+    @Test
+    void testBinaryPreferredAndSavedOverMapping() throws IOException {
+        SemesterConverter.jsonToBinary(directory + "UBC.json", directory + "UBC.fmb");
+        assertEquals(directory + "UBC.fmb", store.pathOf("UBC"));
+
+        Semester semester = store.load("UBC");
+        Semester expected = new BinaryReader(directory + "UBC.fmb").read();
+        semester.get("course1").get("t1").editCardAnswer("q1", "edited");
+        expected.get("course1").get("t1").editCardAnswer("q1", "edited");
+        store.save(semester);
+
+        assertEquals(expected, new BinaryReader(directory + "UBC.fmb").read());
+        assertEquals(expected, semester);
+    }
+
+    @Test
+    void testStringPooling() throws IOException {
+        assertNull(store.load("UBC").getStringPool());
+        assertNull(store.newStringPool());
+
+        store.setStringPooling(true);
+        Semester cold = store.load("UBC");
+        Semester warm = store.load("UBC");
+        SemesterConverter.jsonToBinary(directory + "UBC.json", directory + "UBC.fmb");
+        Semester binary = store.load("UBC");
+        Semester expected = new JsonReader(directory + "UBC.json").read();
+
+        for (Semester semester : new Semester[]{cold, warm, binary}) {
+            StringPool pool = semester.getStringPool();
+            assertNotNull(pool);
+            Card card = semester.get("course0").get("t0").getBelowConfidence(Confidence.HIGH).get("q0");
+            Card other = semester.get("course1").get("t2").getBelowConfidence(Confidence.HIGH).get("q0");
+            assertSame(card.getName(), other.getName());
+            assertSame(card.getAnswer(), other.getAnswer());
+            assertTrue(pool.getShared() > 0);
+            assertEquals(expected, semester);
+        }
+        assertNotSame(cold.getStringPool(), warm.getStringPool());
+
+        store.setStringPooling(false);
+        assertNull(store.newStringPool());
+        assertNotNull(cold.getStringPool());
+    }
+
+    @Test
+    void testCompressedPreferredOverJson() throws IOException {
+        SemesterConverter.compressJson(directory + "UBC.json", directory + "UBC.json.gz", 1);
+        assertEquals(directory + "UBC.json.gz", store.pathOf("UBC"));
+        assertEquals(Collections.singletonList("UBC"), store.listSemesters());
+
+        Semester semester = store.load("UBC");
+        semester.get("course1").get("t1").editCardAnswer("q1", "edited");
+        store.setCompressionLevel(9);
+        store.compact(semester);
+
+        assertEquals(semester, new JsonStreamReader(directory + "UBC.json.gz").read());
+        assertEquals(semester, new SemesterStore(directory).load("UBC"));
+        assertThrows(IllegalArgumentException.class, () -> store.setCompressionLevel(-2));
+    }
+
+    @Test
+    void testListSemesters() throws IOException {
+        SemesterConverter.jsonToBinary(directory + "UBC.json", directory + "UBC.fmb");
+        store.save(new Semester("Another"));
+        Files.write(Paths.get(directory + "notes.txt"), new byte[0]);
+
+        assertEquals(Arrays.asList("Another", "UBC"), store.listSemesters());
+    }
+
+    @Test
+    void testSaveAppendsJournal() throws IOException {
+        byte[] snapshot = Files.readAllBytes(Paths.get(directory + "UBC.json"));
+        Semester semester = store.load("UBC");
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        store.save(semester);
+
+        assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(directory + "UBC.json")));
+        assertTrue(Files.exists(Paths.get(directory + "UBC.json.journal")));
+        assertEquals(semester, new SemesterStore(directory).load("UBC"));
+
+        store.compact(semester);
+        assertFalse(Files.exists(Paths.get(directory + "UBC.json.journal")));
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+    }
+
+    @Test
+    void testStudySavedTwiceFromColumns() throws IOException {
+        new SemesterStore(directory).load("UBC");
+        Semester semester = store.load("UBC");
+        Card card = semester.get("course0").get("t0").getBelowConfidence(Confidence.HIGH).get("q0");
+        int timesStudied = card.getTimesStudied();
+
+        card.trackStudy(LocalDate.of(2020, 10, 1), Confidence.HIGH);
+        store.save(semester);
+        assertFalse(card.isDirty());
+        card.trackStudy(LocalDate.of(2020, 10, 2), Confidence.LOW);
+        assertTrue(semester.isDirty());
+        store.save(semester);
+
+        Card reloaded = new SemesterStore(directory).load("UBC").get("course0").get("t0").get("q0");
+        assertEquals(timesStudied + 2, reloaded.getTimesStudied());
+        assertEquals(Confidence.LOW, reloaded.getConfidence());
+    }
+
+    @Test
+    void testImportCardsNotJournaled() throws IOException {
+        Semester semester = store.load("UBC");
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            csv.append("course0,t0,imported").append(i).append(",answer\n");
+        }
+        csv.append("new,topic,question,answer\n");
+        Path file = Paths.get(directory, "cards.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        ImportReport report = store.importCards(semester, new CardImporter(file.toString()));
+
+        assertEquals(11, report.getImported());
+        assertFalse(semester.isDirty());
+        assertFalse(Files.exists(Paths.get(directory + "UBC.json.journal")));
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+
+        semester.get("course0").get("t0").editCardAnswer("imported0", "edited");
+        store.save(semester);
+        assertEquals(2, Files.readAllLines(Paths.get(directory + "UBC.json.journal")).size());
+        assertEquals(semester, new SemesterStore(directory).load("UBC"));
+    }
+
+    @Test
+    void testSaveCompactsLongJournal() throws IOException {
+        Semester semester = store.load("UBC");
+        Course course = semester.get("course0");
+        for (int i = 0; i < SemesterStore.COMPACTION_THRESHOLD; i++) {
+            course.trackStudy(Confidence.MEDIUM);
+        }
+        store.save(semester);
+
+        assertFalse(Files.exists(Paths.get(directory + "UBC.json.journal")));
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+    }
+
+    @Test
+    void testCompactionsPreparedBeforeCommitted() throws IOException {
+        Semester semester = store.load("UBC");
+        Course course = semester.get("course0");
+        for (int i = 0; i < SemesterStore.COMPACTION_THRESHOLD; i++) {
+            course.trackStudy(Confidence.MEDIUM);
+        }
+        SaveBatch first = store.prepareSave(semester);
+        for (int i = 0; i < SemesterStore.COMPACTION_THRESHOLD; i++) {
+            course.trackStudy(Confidence.HIGH);
+        }
+        SaveBatch second = store.prepareSave(semester);
+        first.commit();
+        second.commit();
+
+        assertEquals(semester, new JsonReader(directory + "UBC.json").read());
+        assertEquals(0, countTempFiles());
+
+        course.trackStudy(Confidence.LOW);
+        semester.editName("Renamed");
+        store.prepareSave(semester).discard();
+        assertFalse(Files.exists(Paths.get(directory + "Renamed.json")));
+        assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    void testSaveRenamedSemester() throws IOException {
+        Semester semester = store.load("UBC");
+        semester.editName("Renamed");
+        store.save(semester);
+
+        assertEquals(semester, new JsonReader(directory + "Renamed.json").read());
+        assertEquals(Arrays.asList("Renamed", "UBC"), store.listSemesters());
+    }
+
+    @Test
+    void testSaveSharded() throws IOException, ModifyException {
+        Semester semester = store.load("UBC");
+        store.saveSharded(semester, ShardedJsonWriter.COURSE_SHARDS);
+        assertEquals(Paths.get(directory, "UBC", ShardedJsonWriter.MANIFEST).toString(), store.pathOf("UBC"));
+        assertEquals(Collections.singletonList("UBC"), store.listSemesters());
+
+        Semester sharded = store.load("UBC");
+        assertFalse(sharded.get("course0").isLoaded());
+        sharded.get("course0").get("t0").editCardAnswer("q0", "edited");
+        semester.get("course0").get("t0").editCardAnswer("q0", "edited");
+        sharded.remove("course1");
+        semester.remove("course1");
+        store.save(sharded);
+
+        assertFalse(Files.exists(Paths.get(directory + "UBC" + ShardedJsonWriter.MANIFEST + SemesterJournal.EXTENSION)));
+        assertEquals(semester, store.load("UBC"));
+    }
+
+    @Test
+    void testSaveSkippedWhenClean() throws IOException {
+        Semester semester = store.load("UBC");
+        assertFalse(semester.isDirty());
+        Files.setLastModifiedTime(Paths.get(directory + "UBC.json"), FileTime.fromMillis(0));
+        store.save(semester);
+        assertEquals(0, Files.getLastModifiedTime(Paths.get(directory + "UBC.json")).toMillis());
+
+        semester.get("course0").trackStudy(Confidence.HIGH);
+        assertTrue(semester.isDirty());
+        store.compact(semester);
+        assertFalse(semester.isDirty());
+        assertNotEquals(0, Files.getLastModifiedTime(Paths.get(directory + "UBC.json")).toMillis());
+    }
+
+    @Test
+    void testListSummariesFromCatalog() throws IOException {
+        Semester semester = new JsonReader(directory + "UBC.json").read();
+        SemesterSummary summary = store.listSummaries().get(0);
+        assertEquals("UBC", summary.getName());
+        assertEquals(semester.size(), summary.getCourses());
+        assertEquals(semester.countCards(), summary.getCards());
+        assertEquals(countAtConfidence(semester, Confidence.HIGH), summary.getCards(Confidence.HIGH));
+        assertTrue(Files.exists(Paths.get(directory + SemesterCatalog.FILE)));
+        assertEquals(Collections.singletonList("UBC"), store.listSemesters());
+
+        // a catalogued semester is not read again until its file is modified
+        corruptKeepingModifiedTime(directory + "UBC.json");
+        assertEquals(summary.toString(), new SemesterStore(directory).listSummaries().get(0).toString());
+        Files.setLastModifiedTime(Paths.get(directory + "UBC.json"), FileTime.fromMillis(0));
+        assertTrue(new SemesterStore(directory).listSummaries().isEmpty());
+    }
+
+    @Test
+    void testSaveUpdatesCatalog() throws IOException, ModifyException {
+        Semester semester = store.load("UBC");
+        int cards = semester.countCards();
+        semester.add("new course").add("new topic").add("q", "a");
+        store.save(semester);
+        store.save(new Semester("Another"));
+
+        corruptKeepingModifiedTime(directory + "UBC.json");
+        List<SemesterSummary> summaries = new SemesterStore(directory).listSummaries();
+        assertEquals(2, summaries.size());
+        assertEquals("Another", summaries.get(0).getName());
+        assertEquals(0, summaries.get(0).getCards());
+        assertEquals(cards + 1, summaries.get(1).getCards());
+        assertEquals(countAtConfidence(semester, Confidence.NONE), summaries.get(1).getCards(Confidence.NONE));
+    }
+
+    // effects: returns number of cards in semester at confidence
+    private int countAtConfidence(Semester semester, Confidence confidence) {
+        int count = 0;
+        for (Card card : semester.getAllCards()) {
+            if (card.getConfidence() == confidence) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // effects: overwrites the file at path with invalid JSON without changing its last modified time
+    private void corruptKeepingModifiedTime(String path) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(Paths.get(path));
+        Files.write(Paths.get(path), "not json".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(Paths.get(path), modified);
+    }
+
+    // effects: returns number of temporary files left in directory
+    private long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(directory))) {
+            return files.filter(file -> file.toString().endsWith(".tmp")).count();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package persistence;
+
+import exceptions.ModifyException;
+import model.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestShardedJsonWriter {
+    Path directory;
+    Semester semester;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        directory = dir.resolve("UBC");
+        semester = new Semester("UBC");
+        semester.addAll(TestSemester.makeTestCourses(6, 3, 4, 1).values());
+    }
+
+    @Test
+    void testWriteCourseShards() throws IOException {
+        new ShardedJsonWriter(directory.toString(), ShardedJsonWriter.COURSE_SHARDS).write(semester);
+        assertEquals(semester.size() + 1, countFiles());
+
+        Semester read = new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString()).read();
+        assertEquals(semester.size(), read.size());
+        for (Course course : read.getAll().values()) {
+            assertFalse(course.isLoaded());
+            assertEquals(semester.get(course.getName()).getConfidence(), course.getConfidence());
+        }
+        assertEquals(semester, read);
+    }
+
+    @Test
+    void testWriteTopicShards() throws IOException {
+        new ShardedJsonWriter(directory.toString(), ShardedJsonWriter.TOPIC_SHARDS).write(semester);
+        assertEquals(semester.getAll().values().stream().mapToInt(Course::size).sum() + 1, countFiles());
+
+        Semester read = new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString()).read();
+        Course course = read.get("course0");
+        assertTrue(course.isLoaded());
+        assertFalse(course.get("t0").isLoaded());
+        assertEquals(semester, read);
+    }
+
+    @Test
+    void testShardStreamedLikeSemester() throws IOException {
+        ShardIndex index = new ShardIndex(directory, ShardedJsonWriter.COURSE_SHARDS);
+        new ShardedJsonWriter(index).write(semester);
+
+        Course course = semester.get("course0");
+        JSONObject shard = new JSONObject(new String(Files.readAllBytes(directory.resolve(index.fileOf(course))),
+                StandardCharsets.UTF_8));
+        assertEquals(JsonFormat.VERSION, shard.getInt(JsonFormat.VERSION_KEY));
+        assertEquals(course.getName(), shard.getString("name"));
+        assertEquals(course.size(), shard.getJSONArray("materialMap").length());
+    }
+
+    @Test
+    void testInvalidShardDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedJsonWriter(directory.toString(), 3));
+    }
+
+    @Test
+    void testOnlyChangedShardsRewritten() throws IOException, ModifyException {
+        new ShardedJsonWriter(directory.toString(), ShardedJsonWriter.COURSE_SHARDS).write(semester);
+        JsonReader reader = new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString());
+        Semester read = reader.read();
+        setAllModifiedTimes(FileTime.fromMillis(0));
+
+        read.get("course0").size();
+        read.get("course1").get("t0").editCardAnswer("q0", "edited");
+        read.get("course2").editName("t0", "renamed");
+        read.get("course3").editName("t0", "renamed");
+        read.remove("course3");
+        String renamedShard = reader.getShardIndex().fileOf(read.get("course4"));
+        read.editName("course4", "renamed course");
+        new ShardedJsonWriter(reader.getShardIndex()).write(read);
+
+        ShardIndex index = reader.getShardIndex();
+        assertEquals(0, modifiedTime(index.fileOf(read.get("course0"))));
+        assertEquals(0, modifiedTime(index.fileOf(read.get("course5"))));
+        assertNotEquals(0, modifiedTime(index.fileOf(read.get("course1"))));
+        assertNotEquals(0, modifiedTime(index.fileOf(read.get("course2"))));
+        assertEquals(renamedShard, index.fileOf(read.get("renamed course")));
+        assertEquals(read.size() + 1, countFiles());
+        assertEquals(read, new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString()).read());
+    }
+
+    @Test
+    void testAddedCourseGetsNewShard() throws IOException, ModifyException {
+        new ShardedJsonWriter(directory.toString(), ShardedJsonWriter.COURSE_SHARDS).write(semester);
+        JsonReader reader = new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString());
+        Semester read = reader.read();
+
+        read.add("new course").add("new topic").add("q", "a");
+        new ShardedJsonWriter(reader.getShardIndex()).write(read);
+
+        assertEquals(read.size() + 1, countFiles());
+        assertEquals(read, new JsonReader(directory.resolve(ShardedJsonWriter.MANIFEST).toString()).read());
+    }
+
+    // EFFECTS: returns number of files in directory
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    // EFFECTS: returns modification time of file in directory in milliseconds
+    private long modifiedTime(String file) throws IOException {
+        return Files.getLastModifiedTime(directory.resolve(file)).toMillis();
+    }
+
+    // MODIFIES: files in directory
+    // EFFECTS: sets modification time of every file in directory to time
+    private void setAllModifiedTimes(FileTime time) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, time);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package persistence;
+
+import exceptions.DuplicateElementException;
+import model.Semester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSnapshotCache {
+    Path source;
+    Path snapshot;
+    Semester original;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        source = dir.resolve("UBC.json");
+        snapshot = Paths.get(source + SnapshotCache.EXTENSION);
+        Files.copy(Paths.get("./data/testLargeSemester.json"), source);
+        original = new JsonReader(source.toString()).read();
+    }
+
+    @Test
+    void testSnapshotWrittenAndReused() throws IOException {
+        assertFalse(Files.exists(snapshot));
+        assertEquals(original, new SnapshotCache(source.toString()).read());
+        assertTrue(Files.exists(snapshot));
+
+        FileTime written = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(snapshot, written);
+        Semester cached = new SnapshotCache(source.toString()).read();
+        assertEquals(original, cached);
+        assertFalse(cached.isDirty());
+        assertEquals(written, Files.getLastModifiedTime(snapshot));
+    }
+
+    @Test
+    void testChangedContentRegenerates() throws IOException {
+        new SnapshotCache(source.toString()).read();
+        FileTime modified = Files.getLastModifiedTime(source);
+        String json = new String(Files.readAllBytes(source), StandardCharsets.UTF_8);
+        Files.write(source, json.replace("course0", "course9").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, modified);
+
+        Semester changed = new SnapshotCache(source.toString()).read();
+        assertNotEquals(original, changed);
+        assertNotNull(changed.get("course9"));
+        assertEquals(changed, new SnapshotCache(source.toString()).read());
+    }
+
+    @Test
+    void testJournalReplayedOverSnapshot() throws IOException, DuplicateElementException {
+        new SnapshotCache(source.toString()).read();
+        SemesterStore store = new SemesterStore(source.getParent() + "/");
+        Semester semester = store.load("UBC");
+        semester.add("new course");
+        store.save(semester);
+
+        Semester loaded = new SnapshotCache(source.toString()).read();
+        assertEquals(semester, loaded);
+        assertNotNull(loaded.get("new course"));
+    }
+
+    @Test
+    void testCorruptSnapshotRegenerated() throws IOException {
+        new SnapshotCache(source.toString()).read();
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertEquals(original, new SnapshotCache(source.toString()).read());
+        assertEquals(bytes.length, Files.size(snapshot));
+    }
+
+    @Test
+    void testMissingSource() throws IOException {
+        new SnapshotCache(source.toString()).read();
+        Files.delete(source);
+        assertThrows(IOException.class, () -> new SnapshotCache(source.toString()).read());
+    }
+}